@@ -0,0 +1,117 @@
+package com.infosys.reward_system.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.infosys.reward_system.RewardSystemApplication;
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.dto.RewardView;
+
+/**
+ * {@link RewardService} as wired by the application against the in-memory H2
+ * database, loaded with the synthetic rows on top of {@code data.sql}. The
+ * reward cache is switched off so every invocation reaches the database, or,
+ * with {@code store=true}, the in-memory transaction store, and with
+ * {@code pointsIndex=true} summaries over a range are read from the points
+ * index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class H2RewardBenchmark {
+	private static final int INSERT_BATCH_SIZE = 10_000;
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	@Param({ "false", "true" })
+	private boolean store;
+
+	@Param({ "false", "true" })
+	private boolean pointsIndex;
+
+	private ConfigurableApplicationContext context;
+	private RewardService rewardService;
+	private LocalDate startDate;
+	private LocalDate endDate;
+	private int pageCursor;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(RewardSystemApplication.class).web(WebApplicationType.NONE)
+				.properties("spring.cache.type=none", "spring.devtools.restart.enabled=false",
+						"spring.jmx.enabled=false")
+				.run("--reward.store.enabled=" + store, "--reward.points-index.enabled=" + pointsIndex);
+		context.getBean(JdbcTemplate.class).batchUpdate(
+				"INSERT INTO transactions (customer_id, customer_name, amount, transaction_date) VALUES (?, ?, ?, ?)",
+				SyntheticTransactions.generate(rows), INSERT_BATCH_SIZE, (statement, row) -> {
+					statement.setInt(1, row.getCustomerId());
+					statement.setString(2, row.getCustomerName());
+					statement.setBigDecimal(3, row.getAmount());
+					statement.setDate(4, Date.valueOf(row.getTransactionDate()));
+				});
+		context.getBean(TransactionStore.class).refresh();
+		context.getBean(RewardPointsIndex.class).rebuild(context.getBean(RewardRuleEngine.class).getRules());
+		rewardService = context.getBean(RewardService.class);
+		startDate = SyntheticTransactions.FIRST_DATE.plusMonths(6).plusDays(14);
+		endDate = startDate.plusMonths(3);
+		pageCursor = SyntheticTransactions.middleCustomerId(rows);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public RewardResponseDto calculateCustomerRewards() {
+		return rewardService.calculateCustomerRewards(SyntheticTransactions.HOT_CUSTOMER_ID, null, null);
+	}
+
+	@Benchmark
+	public RewardResponseDto calculateCustomerRewardsInRange() {
+		return rewardService.calculateCustomerRewards(SyntheticTransactions.HOT_CUSTOMER_ID, startDate, endDate);
+	}
+
+	@Benchmark
+	public Object calculateAllCustomerRewards() {
+		return rewardService.calculateAllCustomerRewards(null, null);
+	}
+
+	/**
+	 * A keyset page of 20 customers from the middle of the ids, with the ETag
+	 * version the controller reads first; should not slow down as {@code rows}
+	 * grows.
+	 */
+	@Benchmark
+	public Object calculateCustomerRewardsPageWithVersion() {
+		return new Object[] { rewardService.getAllCustomerRewardsVersion(),
+				rewardService.calculateCustomerRewardsPage(pageCursor, 20, null, null, RewardView.FULL) };
+	}
+
+	@Benchmark
+	public Object calculateAllCustomerRewardSummariesInRange() {
+		return rewardService.calculateAllCustomerRewardSummaries(startDate, endDate);
+	}
+}
@@ -0,0 +1,78 @@
+package com.infosys.reward_system.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.metrics.RewardMetrics;
+import com.infosys.reward_system.model.Transaction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link RewardService} over rows already in memory, isolating the reward
+ * calculation from the database, either through the repository's row lists or
+ * from the columnar {@link TransactionStore}. Larger sets need a bigger heap, e.g.
+ * {@code -p rows=10000000 -jvmArgsAppend -Xmx8g}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InMemoryRewardBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	/** Rows read through the repository, or from the columnar transaction store. */
+	@Param({ "repository", "store" })
+	private String source;
+
+	private ParallelRewardCalculator parallelRewardCalculator;
+	private RewardService rewardService;
+
+	@Setup
+	public void setUp() {
+		parallelRewardCalculator = new ParallelRewardCalculator(new RewardProperties(), 1);
+		List<Transaction> transactions = SyntheticTransactions.generate(rows);
+		TransactionStore transactionStore = "store".equals(source) ? SyntheticTransactions.inMemoryStore(transactions)
+				: new TransactionStore(null, null, null, new RewardProperties());
+		rewardService = new RewardService(SyntheticTransactions.inMemoryRepository(transactions), null, null,
+				new RewardRuleEngine(SyntheticTransactions.defaultRules()), parallelRewardCalculator,
+				new RewardMetrics(new SimpleMeterRegistry()), transactionStore,
+				new RewardPointsIndex(null, new RewardProperties()),
+				new CustomerRewardsCache(new NoOpCacheManager()), SyntheticTransactions.noTransactions());
+	}
+
+	@TearDown
+	public void tearDown() {
+		parallelRewardCalculator.destroy();
+	}
+
+	@Benchmark
+	public RewardResponseDto calculateCustomerRewards() {
+		return rewardService.calculateCustomerRewards(SyntheticTransactions.HOT_CUSTOMER_ID, null, null);
+	}
+
+	@Benchmark
+	public Object calculateAllCustomerRewards() {
+		return rewardService.calculateAllCustomerRewards(null, null);
+	}
+}
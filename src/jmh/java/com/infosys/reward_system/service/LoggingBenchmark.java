@@ -0,0 +1,115 @@
+package com.infosys.reward_system.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.infosys.reward_system.model.Transaction;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Request-thread latency of the per-customer fetch log line, as it used to be
+ * ({@code sync-payload}: the whole transaction list through a synchronous file
+ * appender) and as it is now ({@code async-summary}: the row count through an
+ * asynchronous appender). {@code sync-summary} separates the two effects. The
+ * asynchronous appender never blocks, so under sustained load it drops events
+ * instead of slowing the caller; that is the behaviour being measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+	@Param({ "sync-payload", "sync-summary", "async-summary" })
+	private String mode;
+
+	private Path logDir;
+	private LoggerContext loggerContext;
+	private Logger logger;
+	private boolean payload;
+	private List<Transaction> transactions;
+
+	@Setup
+	public void setUp() throws IOException {
+		logDir = Files.createTempDirectory("reward-logging-benchmark");
+		loggerContext = new LoggerContext();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(loggerContext);
+		encoder.setPattern("%d{yyyy-MM-dd} [%thread] %-5level %logger{36} - %msg%n");
+		encoder.start();
+
+		FileAppender<ILoggingEvent> file = new FileAppender<>();
+		file.setContext(loggerContext);
+		file.setFile(logDir.resolve("application.log").toString());
+		file.setEncoder(encoder);
+		file.start();
+
+		Appender<ILoggingEvent> appender = file;
+		if (mode.startsWith("async")) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(loggerContext);
+			async.setQueueSize(8192);
+			async.setNeverBlock(true);
+			async.addAppender(file);
+			async.start();
+			appender = async;
+		}
+
+		logger = loggerContext.getLogger(RewardService.class);
+		logger.setLevel(Level.INFO);
+		logger.addAppender(appender);
+		payload = mode.endsWith("payload");
+		transactions = SyntheticTransactions.generate(1000).stream()
+				.filter(row -> row.getCustomerId() == SyntheticTransactions.HOT_CUSTOMER_ID)
+				.collect(Collectors.toList());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		loggerContext.stop();
+		try (Stream<Path> files = Files.walk(logDir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public void logFetchedTransactions() {
+		if (payload) {
+			logger.info("Fetched transactions for customer {}: {}", SyntheticTransactions.HOT_CUSTOMER_ID,
+					transactions);
+		} else {
+			logger.info("Fetched {} transactions for customer {}", transactions.size(),
+					SyntheticTransactions.HOT_CUSTOMER_ID);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.infosys.reward_system.service;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.infosys.reward_system.model.RewardPromotion;
+import com.infosys.reward_system.rules.RewardRules;
+
+/**
+ * Throughput of the compiled reward rules alone, over amounts spread across all
+ * three tiers, against the hard-coded tier formula they replaced.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardPointsBenchmark {
+	private static final int AMOUNTS = 1024;
+
+	private final long[] amountCents = new long[AMOUNTS];
+	private final LocalDate[] dates = new LocalDate[AMOUNTS];
+	private RewardRules tiers;
+	private RewardRules tiersWithPromotion;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(AMOUNTS);
+		for (int i = 0; i < AMOUNTS; i++) {
+			amountCents[i] = random.nextInt(30001);
+			dates[i] = SyntheticTransactions.FIRST_DATE.plusDays(random.nextInt(730));
+		}
+		tiers = SyntheticTransactions.defaultRules();
+		RewardPromotion holidays = RewardPromotion.builder().startDate(LocalDate.of(2023, 11, 20))
+				.endDate(LocalDate.of(2023, 12, 31)).multiplierPercent(200).build();
+		tiersWithPromotion = RewardRules.compile(SyntheticTransactions.DEFAULT_TIERS,
+				Collections.singletonList(holidays));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(AMOUNTS)
+	public void hardCodedTiers(Blackhole blackhole) {
+		for (long cents : amountCents) {
+			int amount = (int) (cents / 100);
+			blackhole.consume(amount <= 50 ? 0 : amount <= 100 ? amount - 50 : (amount - 100) * 2 + 50);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(AMOUNTS)
+	public void compiledTierPoints(Blackhole blackhole) {
+		for (long cents : amountCents) {
+			blackhole.consume(tiers.tierPoints((int) (cents / 100)));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(AMOUNTS)
+	public void compiledTiers(Blackhole blackhole) {
+		for (int i = 0; i < AMOUNTS; i++) {
+			blackhole.consume(tiers.points(amountCents[i], dates[i]));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(AMOUNTS)
+	public void compiledTiersWithPromotion(Blackhole blackhole) {
+		for (int i = 0; i < AMOUNTS; i++) {
+			blackhole.consume(tiersWithPromotion.points(amountCents[i], dates[i]));
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.infosys.reward_system.service;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.TransactionRepository;
+import com.infosys.reward_system.repository.projection.TransactionRow;
+import com.infosys.reward_system.rules.RewardRules;
+import com.infosys.reward_system.store.TransactionBatch;
+import com.infosys.reward_system.store.TransactionSnapshot;
+
+/**
+ * Deterministic synthetic transaction sets for the benchmarks. Customers are
+ * skewed so that a few low ids own most of the rows, the way a handful of heavy
+ * buyers dominate real data; {@link #HOT_CUSTOMER_ID} is the heaviest of them.
+ */
+final class SyntheticTransactions {
+	static final int FIRST_CUSTOMER_ID = 1000;
+	static final int HOT_CUSTOMER_ID = FIRST_CUSTOMER_ID;
+	static final LocalDate FIRST_DATE = LocalDate.of(2023, 1, 1);
+	/** The tiers seeded by {@code data.sql}: 1 point per dollar over $50, 2 over $100. */
+	static final List<RewardTier> DEFAULT_TIERS = Collections
+			.unmodifiableList(Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2)));
+
+	private static final int ROWS_PER_CUSTOMER = 50;
+	private static final double SKEW = 3.0;
+
+	private SyntheticTransactions() {
+	}
+
+	/**
+	 * {@link #DEFAULT_TIERS} without promotions.
+	 */
+	static RewardRules defaultRules() {
+		return RewardRules.compile(DEFAULT_TIERS, Collections.emptyList());
+	}
+
+	/**
+	 * A customer half way through the ids of {@code rows} transactions; the
+	 * customers around it own about the same number of rows at any size.
+	 */
+	static int middleCustomerId(int rows) {
+		return FIRST_CUSTOMER_ID + customers(rows) / 2;
+	}
+
+	/**
+	 * {@code rows} transactions in insertion order, with transaction ids
+	 * {@code 1..rows}, spread over two years and amounts of 0.00 to 300.00.
+	 */
+	static List<Transaction> generate(int rows) {
+		Random random = new Random(rows);
+		int customers = customers(rows);
+		List<Transaction> transactions = new ArrayList<>(rows);
+		for (int i = 1; i <= rows; i++) {
+			int customerId = FIRST_CUSTOMER_ID + (int) (customers * Math.pow(random.nextDouble(), SKEW));
+			transactions.add(Transaction.builder().transactionId(i).customerId(customerId)
+					.customerName("Customer " + customerId).amount(BigDecimal.valueOf(random.nextInt(30001), 2))
+					.transactionDate(FIRST_DATE.plusDays(random.nextInt(730))).build());
+		}
+		return transactions;
+	}
+
+	private static int customers(int rows) {
+		return Math.max(10, rows / ROWS_PER_CUSTOMER);
+	}
+
+	/**
+	 * The rows in the order of the repository's all-customer queries: by customer,
+	 * then by transaction id.
+	 */
+	static List<Transaction> orderedByCustomer(List<Transaction> transactions) {
+		List<Transaction> ordered = new ArrayList<>(transactions);
+		ordered.sort(Comparator.comparingInt(Transaction::getCustomerId));
+		return ordered;
+	}
+
+	/**
+	 * A {@link TransactionRepository} over the given rows answering the open-range
+	 * queries {@link RewardService} issues, so the in-memory benchmarks measure the
+	 * reward calculation without any database work.
+	 */
+	static TransactionRepository inMemoryRepository(List<Transaction> transactions) {
+		List<TransactionRow> ordered = new ArrayList<>(transactions.size());
+		Map<Integer, List<TransactionRow>> byCustomer = new LinkedHashMap<>();
+		Map<Integer, String> names = new LinkedHashMap<>();
+		for (Transaction transaction : orderedByCustomer(transactions)) {
+			TransactionRow row = new TransactionRow(transaction.getCustomerId(), transaction.getCustomerName(),
+					transaction.getTransactionId(), transaction.getAmount(), transaction.getTransactionDate());
+			ordered.add(row);
+			byCustomer.computeIfAbsent(row.getCustomerId(), id -> new ArrayList<>()).add(row);
+			names.putIfAbsent(row.getCustomerId(), row.getCustomerName());
+		}
+
+		return (TransactionRepository) Proxy.newProxyInstance(TransactionRepository.class.getClassLoader(),
+				new Class<?>[] { TransactionRepository.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "findAllRowsOrderByCustomer":
+						return ordered;
+					case "findRowsByCustomerId":
+						return byCustomer.getOrDefault(args[0], Collections.emptyList());
+					case "findCustomerNames":
+						return Collections.singletonList(names.get(args[0]));
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	/**
+	 * A {@link TransactionStore} holding the given rows, never refreshed.
+	 */
+	static TransactionStore inMemoryStore(List<Transaction> transactions) {
+		TransactionBatch batch = new TransactionBatch();
+		for (Transaction transaction : transactions) {
+			batch.add(transaction.getTransactionId(), transaction.getCustomerId(), transaction.getCustomerName(),
+					transaction.getTransactionDate(), CustomerRewardAccumulator.toCents(transaction.getAmount()));
+		}
+		return new TransactionStore(TransactionSnapshot.EMPTY.with(batch));
+	}
+
+	/**
+	 * A transaction manager that does nothing, for services run without a
+	 * database.
+	 */
+	static PlatformTransactionManager noTransactions() {
+		return new AbstractPlatformTransactionManager() {
+			@Override
+			protected Object doGetTransaction() {
+				return new Object();
+			}
+
+			@Override
+			protected void doBegin(Object transaction, TransactionDefinition definition) {
+			}
+
+			@Override
+			protected void doCommit(DefaultTransactionStatus status) {
+			}
+
+			@Override
+			protected void doRollback(DefaultTransactionStatus status) {
+			}
+		};
+	}
+}
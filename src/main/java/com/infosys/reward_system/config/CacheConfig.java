@@ -0,0 +1,28 @@
+package com.infosys.reward_system.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.infosys.reward_system.service.CustomerRewardsCache;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	/**
+	 * Builder of the Caffeine caches, bounded by {@code reward.cache.spec}. It
+	 * reports the entries Caffeine drops on its own to the
+	 * {@link CustomerRewardsCache}, which tracks the cached ranges.
+	 */
+	@Bean
+	public Caffeine<Object, Object> caffeine(RewardProperties rewardProperties,
+			ObjectProvider<CustomerRewardsCache> customerRewardsCache) {
+		return Caffeine.from(rewardProperties.getCache().getSpec())
+				.removalListener((key, value, cause) -> customerRewardsCache
+						.ifAvailable(cache -> cache.onRemoval(key, value, cause)));
+	}
+}
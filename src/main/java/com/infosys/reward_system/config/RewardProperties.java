@@ -0,0 +1,115 @@
+package com.infosys.reward_system.config;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import lombok.Data;
+
+/**
+ * Tuning knobs of the reward calculation, bound from {@code reward.*}.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "reward")
+public class RewardProperties {
+	@Valid
+	private final Parallel parallel = new Parallel();
+	@Valid
+	private final Bulk bulk = new Bulk();
+	@Valid
+	private final Jobs jobs = new Jobs();
+	private final Rules rules = new Rules();
+	private final Store store = new Store();
+	private final PointsIndex pointsIndex = new PointsIndex();
+	private final Cache cache = new Cache();
+
+	/**
+	 * Per-customer fan-out of the all-customer rewards, as an alternative to the
+	 * default single-query pass.
+	 */
+	@Data
+	public static class Parallel {
+		private boolean enabled = false;
+		/** Worker threads; 0 sizes the pool to the Hikari connection pool. */
+		@Min(0)
+		private int poolSize = 0;
+		@Min(0)
+		private int queueCapacity = 1000;
+		/** Run each customer on a virtual thread when the JVM supports them. */
+		private boolean virtualThreads = false;
+		private Duration customerTimeout = Duration.ofSeconds(30);
+	}
+
+	/**
+	 * Bulk transaction uploads.
+	 */
+	@Data
+	public static class Bulk {
+		/** Rows written per JDBC batch and database transaction. */
+		@Min(1)
+		private int chunkSize = 1000;
+		/** Rejected lines listed in the upload result. */
+		@Min(0)
+		private int maxReportedRejections = 100;
+	}
+
+	/**
+	 * Asynchronous all-customer reward reports.
+	 */
+	@Data
+	public static class Jobs {
+		@Min(1)
+		private int poolSize = 2;
+		@Min(0)
+		private int queueCapacity = 20;
+		/** How long finished reports and their results are kept. */
+		private Duration retention = Duration.ofHours(24);
+		private Duration cleanupInterval = Duration.ofMinutes(10);
+		private String resultDir = Paths.get(System.getProperty("java.io.tmpdir"), "reward-report-jobs").toString();
+	}
+
+	/**
+	 * Reward tiers and promotions, read from the {@code reward_tiers} and
+	 * {@code reward_promotions} tables.
+	 */
+	@Data
+	public static class Rules {
+		/** How often the tables are checked for changed rules. */
+		private Duration reloadInterval = Duration.ofMinutes(1);
+	}
+
+	/**
+	 * In-memory columnar copy of the transactions that reward reads are served
+	 * from instead of the database.
+	 */
+	@Data
+	public static class Store {
+		private boolean enabled = false;
+		/** How often transactions written outside this application are picked up. */
+		private Duration refreshInterval = Duration.ofSeconds(10);
+	}
+
+	/**
+	 * In-memory per-customer prefix sums of daily reward points, answering
+	 * summaries over ranges that do not align with months.
+	 */
+	@Data
+	public static class PointsIndex {
+		private boolean enabled = false;
+	}
+
+	/**
+	 * The customer rewards cache, built by {@link CacheConfig}.
+	 */
+	@Data
+	public static class Cache {
+		/** Caffeine specification of the cache bounds. */
+		private String spec = "maximumSize=10000,expireAfterWrite=10m,recordStats";
+	}
+}
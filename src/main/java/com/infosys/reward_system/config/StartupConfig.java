@@ -0,0 +1,35 @@
+package com.infosys.reward_system.config;
+
+import java.lang.reflect.Method;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+@Configuration
+public class StartupConfig {
+
+	/**
+	 * Keeps beans with {@code @Scheduled} methods eager under
+	 * {@code spring.main.lazy-initialization}: a lazy one would only be created,
+	 * and its schedule registered, by the first request needing it, and the
+	 * rules engine would build the ledger inside that request.
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+		return (beanName, beanDefinition, beanType) -> hasScheduledMethods(beanType);
+	}
+
+	private static boolean hasScheduledMethods(Class<?> beanType) {
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType,
+				ReflectionUtils.USER_DECLARED_METHODS)) {
+			if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
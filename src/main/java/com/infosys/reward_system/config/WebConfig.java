@@ -0,0 +1,47 @@
+package com.infosys.reward_system.config;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.infosys.reward_system.dto.RewardView;
+import com.infosys.reward_system.metrics.MeteredJsonHttpMessageConverter;
+import com.infosys.reward_system.metrics.RewardMetrics;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private final RewardMetrics rewardMetrics;
+
+	public WebConfig(RewardMetrics rewardMetrics) {
+		this.rewardMetrics = rewardMetrics;
+	}
+
+	/**
+	 * Accepts {@code view=summary} as well as {@code view=SUMMARY}.
+	 */
+	@Override
+	public void addFormatters(FormatterRegistry registry) {
+		registry.addConverter(String.class, RewardView.class,
+				value -> RewardView.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+	}
+
+	/**
+	 * Swaps the JSON converter for one that times serialization, keeping the
+	 * configured {@code ObjectMapper}.
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+				converters.set(i, new MeteredJsonHttpMessageConverter(
+						((MappingJackson2HttpMessageConverter) converters.get(i)).getObjectMapper(), rewardMetrics));
+			}
+		}
+	}
+}
@@ -1,18 +1,40 @@
 package com.infosys.reward_system.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.infosys.reward_system.dto.RewardBatchDto;
+import com.infosys.reward_system.dto.RewardBatchRequestDto;
+import com.infosys.reward_system.dto.RewardLeaderDto;
+import com.infosys.reward_system.dto.RewardPageDto;
 import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.dto.RewardView;
+import com.infosys.reward_system.exception.InvalidBatchSizeException;
 import com.infosys.reward_system.exception.InvalidDateRangeException;
+import com.infosys.reward_system.exception.InvalidLeaderboardSizeException;
+import com.infosys.reward_system.exception.InvalidPageSizeException;
 import com.infosys.reward_system.service.RewardService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,39 +43,224 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/api")
 @Slf4j
 public class RewardController {
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	public static final String FAILED_CUSTOMERS_HEADER = "X-Failed-Customer-Ids";
+	static final int DEFAULT_PAGE_SIZE = 100;
+	static final int MAX_PAGE_SIZE = 1000;
+	static final int MAX_BATCH_SIZE = 1000;
+	static final int DEFAULT_LEADERBOARD_SIZE = 100;
+	static final int MAX_LEADERBOARD_SIZE = 1000;
+	/**
+	 * Clients may keep reward responses but must revalidate them, which the
+	 * version ETag answers with a 304 without calculating the rewards.
+	 */
+	static final CacheControl REWARDS_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
 	private final RewardService rewardService;
+	private final ObjectMapper objectMapper;
 
-	public RewardController(RewardService rewardService) {
+	public RewardController(RewardService rewardService, ObjectMapper objectMapper) {
 		this.rewardService = rewardService;
+		this.objectMapper = objectMapper;
 	}
 
+	/**
+	 * Rewards of all customers, or, when {@code limit} or {@code afterCustomerId}
+	 * is given, of one keyset page of customers. A page that is not the last one
+	 * carries the cursor of the next page in the {@value #NEXT_CURSOR_HEADER}
+	 * header. Conditional on the ETag of all transactions. Customers whose
+	 * parallel calculation failed or timed out are listed, comma separated, in
+	 * the {@value #FAILED_CUSTOMERS_HEADER} header, and such a partial response
+	 * is not to be stored.
+	 */
 	@GetMapping("/rewards")
 	public ResponseEntity<List<RewardResponseDto>> getAllCustomerRewards(
 			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-		log.info("Fetching rewards for all customers from {} to {}", startDate, endDate);
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(defaultValue = "FULL") RewardView view, @RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) Integer afterCustomerId, WebRequest webRequest) {
+		log.info("Fetching {} rewards for all customers from {} to {}", view, startDate, endDate);
+
+		if (isDateRangeInvalid(startDate, endDate)) {
+			log.warn("Invalid date range provided: {} - {}", startDate, endDate);
+			throw new InvalidDateRangeException(startDate, endDate);
+		}
+
+		if (isNotModified(webRequest, rewardService.getAllCustomerRewardsVersion())) {
+			return notModified();
+		}
+
+		if (limit != null || afterCustomerId != null) {
+			return getCustomerRewardsPage(afterCustomerId, limit, startDate, endDate, view);
+		}
+
+		if (view == RewardView.SUMMARY) {
+			return ResponseEntity.ok().cacheControl(REWARDS_CACHE_CONTROL)
+					.body(rewardService.calculateAllCustomerRewardSummaries(startDate, endDate));
+		}
+		RewardBatchDto rewards = rewardService.calculateAllCustomerRewards(startDate, endDate);
+		if (rewards.getFailedCustomerIds().isEmpty()) {
+			return ResponseEntity.ok().cacheControl(REWARDS_CACHE_CONTROL).body(rewards.getRewards());
+		}
+		return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+				.header(FAILED_CUSTOMERS_HEADER, rewards.getFailedCustomerIds().stream().map(String::valueOf)
+						.collect(Collectors.joining(",")))
+				.body(rewards.getRewards());
+	}
+
+	/**
+	 * Writes the rewards of all customers as newline-delimited JSON, one customer
+	 * per line, while the transactions are still being read.
+	 */
+	@GetMapping(value = "/rewards/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportAllCustomerRewards(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(defaultValue = "FULL") RewardView view) {
+		log.info("Exporting {} rewards for all customers from {} to {}", view, startDate, endDate);
+
+		if (isDateRangeInvalid(startDate, endDate)) {
+			log.warn("Invalid date range provided: {} - {}", startDate, endDate);
+			throw new InvalidDateRangeException(startDate, endDate);
+		}
+
+		StreamingResponseBody body = outputStream -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).setRootValueSeparator(null)) {
+				rewardService.streamAllCustomerRewards(startDate, endDate, view, reward -> {
+					try {
+						objectMapper.writeValue(generator, reward);
+						generator.writeRaw('\n');
+						generator.flush();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	/**
+	 * The {@code n} customers with the most reward points in the range, most
+	 * first, with their totals only. Conditional on the ETag of all
+	 * transactions.
+	 */
+	@GetMapping("/rewards/top")
+	public ResponseEntity<List<RewardLeaderDto>> getTopCustomers(@RequestParam(required = false) Integer n,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			WebRequest webRequest) {
+		int size = n == null ? DEFAULT_LEADERBOARD_SIZE : n;
+		log.info("Fetching the top {} customers from {} to {}", size, startDate, endDate);
+
+		if (size < 1 || size > MAX_LEADERBOARD_SIZE) {
+			log.warn("Invalid leaderboard size provided: {}", size);
+			throw new InvalidLeaderboardSizeException(size, MAX_LEADERBOARD_SIZE);
+		}
 
 		if (isDateRangeInvalid(startDate, endDate)) {
 			log.warn("Invalid date range provided: {} - {}", startDate, endDate);
 			throw new InvalidDateRangeException(startDate, endDate);
 		}
 
-		return ResponseEntity.ok(rewardService.calculateAllCustomerRewards(startDate, endDate));
+		if (isNotModified(webRequest, rewardService.getAllCustomerRewardsVersion())) {
+			return notModified();
+		}
+
+		return ResponseEntity.ok().cacheControl(REWARDS_CACHE_CONTROL)
+				.body(rewardService.findTopCustomers(size, startDate, endDate));
 	}
 
+	/**
+	 * Rewards of one customer, conditional on the ETag of the customer's
+	 * transactions in the range.
+	 */
 	@GetMapping("/rewards/{customerId}")
 	public ResponseEntity<RewardResponseDto> getCustomerRewards(@PathVariable int customerId,
 			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-		log.info("Fetching rewards for customer {}: startDate {} - endDate {}", customerId, startDate, endDate);
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(defaultValue = "FULL") RewardView view, WebRequest webRequest) {
+		log.info("Fetching {} rewards for customer {}: startDate {} - endDate {}", view, customerId, startDate,
+				endDate);
 
 		if (isDateRangeInvalid(startDate, endDate)) {
 			log.warn("Invalid date range provided for customer {}: {} - {}", customerId, startDate, endDate);
 			throw new InvalidDateRangeException(startDate, endDate);
 		}
 
-		return ResponseEntity.ok(rewardService.calculateCustomerRewards(customerId, startDate, endDate));
+		if (isNotModified(webRequest, rewardService.getCustomerRewardsVersion(customerId, startDate, endDate))) {
+			return notModified();
+		}
+
+		if (view == RewardView.SUMMARY) {
+			return ResponseEntity.ok().cacheControl(REWARDS_CACHE_CONTROL)
+					.body(rewardService.calculateCustomerRewardSummary(customerId, startDate, endDate));
+		}
+		return ResponseEntity.ok().cacheControl(REWARDS_CACHE_CONTROL)
+				.body(rewardService.calculateCustomerRewards(customerId, startDate, endDate));
+
+	}
+
+	/**
+	 * Rewards of up to {@value #MAX_BATCH_SIZE} specific customers in one call.
+	 * Customers without transactions in the range are listed in
+	 * {@code notFoundCustomerIds} instead of failing the request.
+	 */
+	@PostMapping("/rewards/batch")
+	public ResponseEntity<RewardBatchDto> getCustomerRewardsBatch(@RequestBody RewardBatchRequestDto request,
+			@RequestParam(defaultValue = "FULL") RewardView view) {
+		List<Integer> customerIds = request.getCustomerIds() == null ? Collections.emptyList()
+				: request.getCustomerIds();
+		log.info("Fetching {} rewards for a batch of {} customers: startDate {} - endDate {}", view,
+				customerIds.size(), request.getStartDate(), request.getEndDate());
+
+		if (customerIds.isEmpty() || customerIds.size() > MAX_BATCH_SIZE) {
+			log.warn("Invalid batch size provided: {}", customerIds.size());
+			throw new InvalidBatchSizeException(customerIds.size(), MAX_BATCH_SIZE);
+		}
+
+		if (isDateRangeInvalid(request.getStartDate(), request.getEndDate())) {
+			log.warn("Invalid date range provided: {} - {}", request.getStartDate(), request.getEndDate());
+			throw new InvalidDateRangeException(request.getStartDate(), request.getEndDate());
+		}
+
+		return ResponseEntity.ok(rewardService.calculateCustomerRewardsBatch(customerIds, request.getStartDate(),
+				request.getEndDate(), view));
+	}
+
+	private ResponseEntity<List<RewardResponseDto>> getCustomerRewardsPage(Integer afterCustomerId, Integer limit,
+			LocalDate startDate, LocalDate endDate, RewardView view) {
+		int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			log.warn("Invalid page size provided: {}", pageSize);
+			throw new InvalidPageSizeException(pageSize, MAX_PAGE_SIZE);
+		}
+
+		RewardPageDto page = rewardService.calculateCustomerRewardsPage(
+				afterCustomerId == null ? Integer.MIN_VALUE : afterCustomerId, pageSize, startDate, endDate, view);
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REWARDS_CACHE_CONTROL);
+		if (page.getNextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+		}
+		return response.body(page.getRewards());
+	}
+
+	/**
+	 * Sets the ETag of {@code version} on the response and tells whether the
+	 * request's {@code If-None-Match} already carries it. The ETag is weak: the
+	 * same rewards are sent gzip-compressed or not, and Tomcat does not compress
+	 * responses with a strong one.
+	 */
+	private boolean isNotModified(WebRequest webRequest, String version) {
+		return version != null && webRequest.checkNotModified("W/\"" + version + "\"");
+	}
 
+	private <T> ResponseEntity<T> notModified() {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REWARDS_CACHE_CONTROL).build();
 	}
 
 	private boolean isDateRangeInvalid(LocalDate startDate, LocalDate endDate) {
@@ -0,0 +1,68 @@
+package com.infosys.reward_system.controller;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.infosys.reward_system.dto.RewardReportJobDto;
+import com.infosys.reward_system.exception.InvalidDateRangeException;
+import com.infosys.reward_system.service.RewardReportJobService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api")
+@Slf4j
+public class RewardReportJobController {
+
+	private final RewardReportJobService rewardReportJobService;
+
+	public RewardReportJobController(RewardReportJobService rewardReportJobService) {
+		this.rewardReportJobService = rewardReportJobService;
+	}
+
+	/**
+	 * Starts a background report of all customers' rewards and answers with the
+	 * job to poll, without waiting for the calculation.
+	 */
+	@PostMapping("/rewards/jobs")
+	public ResponseEntity<RewardReportJobDto> submitRewardReport(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		log.info("Submitting reward report for all customers from {} to {}", startDate, endDate);
+
+		if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+			log.warn("Invalid date range provided: {} - {}", startDate, endDate);
+			throw new InvalidDateRangeException(startDate, endDate);
+		}
+
+		RewardReportJobDto job = rewardReportJobService.submit(startDate, endDate);
+		return ResponseEntity.accepted().location(URI.create("/api/rewards/jobs/" + job.getJobId())).body(job);
+	}
+
+	@GetMapping("/rewards/jobs/{jobId}")
+	public ResponseEntity<RewardReportJobDto> getRewardReport(@PathVariable String jobId) {
+		return ResponseEntity.ok(rewardReportJobService.getJob(jobId));
+	}
+
+	/**
+	 * The rewards of a succeeded report, as a JSON array in the shape of
+	 * {@code GET /api/rewards}.
+	 */
+	@GetMapping("/rewards/jobs/{jobId}/result")
+	public ResponseEntity<Resource> getRewardReportResult(@PathVariable String jobId) {
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.body(new FileSystemResource(rewardReportJobService.getResult(jobId)));
+	}
+}
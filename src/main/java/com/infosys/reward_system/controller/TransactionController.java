@@ -0,0 +1,48 @@
+package com.infosys.reward_system.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.infosys.reward_system.dto.BulkIngestResultDto;
+import com.infosys.reward_system.service.BulkTransactionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api")
+@Slf4j
+public class TransactionController {
+	static final String TEXT_CSV_VALUE = "text/csv";
+
+	private final BulkTransactionService bulkTransactionService;
+
+	public TransactionController(BulkTransactionService bulkTransactionService) {
+		this.bulkTransactionService = bulkTransactionService;
+	}
+
+	/**
+	 * Loads transactions from a CSV body, read from the request stream as it
+	 * arrives.
+	 */
+	@PostMapping(value = "/transactions/bulk", consumes = TEXT_CSV_VALUE)
+	public ResponseEntity<BulkIngestResultDto> bulkLoadCsv(InputStream body) throws IOException {
+		log.info("Loading transactions from CSV upload");
+		return ResponseEntity.ok(bulkTransactionService.ingest(body, BulkTransactionService.Format.CSV));
+	}
+
+	/**
+	 * Loads transactions from a newline-delimited JSON body, one transaction per
+	 * line, read from the request stream as it arrives.
+	 */
+	@PostMapping(value = "/transactions/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<BulkIngestResultDto> bulkLoadNdjson(InputStream body) throws IOException {
+		log.info("Loading transactions from NDJSON upload");
+		return ResponseEntity.ok(bulkTransactionService.ingest(body, BulkTransactionService.Format.NDJSON));
+	}
+}
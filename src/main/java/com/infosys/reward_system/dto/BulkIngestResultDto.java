@@ -0,0 +1,19 @@
+package com.infosys.reward_system.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Outcome of a bulk transaction upload. {@code rejections} lists the first
+ * rejected lines only; {@code rejectedRows} counts all of them.
+ */
+@Data
+public class BulkIngestResultDto {
+	private long acceptedRows;
+	private long rejectedRows;
+	private long elapsedMillis;
+	private double rowsPerSecond;
+	private List<RejectedRowDto> rejections = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.infosys.reward_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A bulk upload line that was not loaded, with the reason it was rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedRowDto {
+	private long line;
+	private String reason;
+}
@@ -0,0 +1,21 @@
+package com.infosys.reward_system.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rewards of a batch of customers, in the order requested, the requested
+ * customers without transactions in the range and those whose calculation
+ * failed or timed out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardBatchDto {
+	private List<RewardResponseDto> rewards;
+	private List<Integer> notFoundCustomerIds;
+	private List<Integer> failedCustomerIds;
+}
@@ -0,0 +1,20 @@
+package com.infosys.reward_system.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Customers whose rewards are looked up together, over an optional date range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardBatchRequestDto {
+	private List<Integer> customerIds;
+	private LocalDate startDate;
+	private LocalDate endDate;
+}
@@ -0,0 +1,20 @@
+package com.infosys.reward_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One customer of the reward leaderboard, with the total points in the
+ * requested range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardLeaderDto {
+	private int customerId;
+	private String customerName;
+	private int totalRewardPoints;
+}
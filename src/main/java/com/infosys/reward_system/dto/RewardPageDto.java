@@ -0,0 +1,20 @@
+package com.infosys.reward_system.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page of customer rewards. {@code nextCursor} is the
+ * {@code afterCustomerId} of the following page, or {@code null} on the last
+ * page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardPageDto {
+	private List<RewardResponseDto> rewards;
+	private Integer nextCursor;
+}
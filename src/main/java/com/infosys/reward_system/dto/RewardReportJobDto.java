@@ -0,0 +1,34 @@
+package com.infosys.reward_system.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.infosys.reward_system.model.RewardReportJobStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of an asynchronous reward report. {@code resultUrl} is set once the
+ * report has succeeded.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RewardReportJobDto {
+	private String jobId;
+	private RewardReportJobStatus status;
+	private LocalDate startDate;
+	private LocalDate endDate;
+	private int customersDone;
+	private Integer customersTotal;
+	private LocalDateTime createdAt;
+	private LocalDateTime finishedAt;
+	private String error;
+	private String resultUrl;
+}
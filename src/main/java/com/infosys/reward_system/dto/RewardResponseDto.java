@@ -3,13 +3,16 @@ package com.infosys.reward_system.dto;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Represents the response containing the reward details for a customer.
+ * Represents the response containing the reward details for a customer. The
+ * transactions are omitted from summary responses.
  */
 @Data
 @NoArgsConstructor
@@ -20,5 +23,6 @@ public class RewardResponseDto {
 	private String customerName;
 	private int totalRewardPoints;
 	private Map<String, Integer> monthlyRewards;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private List<TransactionRewardDto> transactions;
 }
@@ -0,0 +1,11 @@
+package com.infosys.reward_system.dto;
+
+/**
+ * Level of detail returned by the reward endpoints.
+ */
+public enum RewardView {
+	/** Totals, monthly rewards and the per-transaction breakdown. */
+	FULL,
+	/** Totals and monthly rewards only, aggregated by the database. */
+	SUMMARY
+}
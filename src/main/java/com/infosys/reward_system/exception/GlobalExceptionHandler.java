@@ -6,8 +6,11 @@ import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -17,11 +20,57 @@ public class GlobalExceptionHandler {
 		return buildErrorResponse(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
 	}
 
+	@ExceptionHandler(ReportJobNotFoundException.class)
+	public ResponseEntity<Map<String, Object>> handleReportJobNotFound(ReportJobNotFoundException ex) {
+		return buildErrorResponse(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
+	}
+
+	@ExceptionHandler(ReportJobNotReadyException.class)
+	public ResponseEntity<Map<String, Object>> handleReportJobNotReady(ReportJobNotReadyException ex) {
+		return buildErrorResponse(HttpStatus.CONFLICT, "Conflict", ex.getMessage());
+	}
+
+	@ExceptionHandler(ReportJobRejectedException.class)
+	public ResponseEntity<Map<String, Object>> handleReportJobRejected(ReportJobRejectedException ex) {
+		return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex.getMessage());
+	}
+
 	@ExceptionHandler(InvalidDateRangeException.class)
 	public ResponseEntity<Map<String, Object>> handleInvalidDateRange(InvalidDateRangeException ex) {
 		return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
 	}
 
+	@ExceptionHandler(InvalidPageSizeException.class)
+	public ResponseEntity<Map<String, Object>> handleInvalidPageSize(InvalidPageSizeException ex) {
+		return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+	}
+
+	@ExceptionHandler(InvalidLeaderboardSizeException.class)
+	public ResponseEntity<Map<String, Object>> handleInvalidLeaderboardSize(InvalidLeaderboardSizeException ex) {
+		return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+	}
+
+	@ExceptionHandler(InvalidBatchSizeException.class)
+	public ResponseEntity<Map<String, Object>> handleInvalidBatchSize(InvalidBatchSizeException ex) {
+		return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+	}
+
+	@ExceptionHandler(HttpMessageNotReadableException.class)
+	public ResponseEntity<Map<String, Object>> handleUnreadableBody(HttpMessageNotReadableException ex) {
+		return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", "Malformed request body");
+	}
+
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	public ResponseEntity<Map<String, Object>> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+		return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request",
+				String.format("Invalid value '%s' for parameter '%s'", ex.getValue(), ex.getName()));
+	}
+
+	@ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+	public ResponseEntity<Map<String, Object>> handleUnsupportedMediaType(HttpMediaTypeNotSupportedException ex) {
+		return buildErrorResponse(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported Media Type", ex.getMessage());
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<Map<String, Object>> handleGenericError(Exception ex) {
 		return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
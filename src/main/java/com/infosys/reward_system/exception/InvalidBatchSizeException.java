@@ -0,0 +1,9 @@
+package com.infosys.reward_system.exception;
+
+public class InvalidBatchSizeException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidBatchSizeException(int size, int maxSize) {
+		super(String.format("Invalid batch: %d customer ids, must be between 1 and %d", size, maxSize));
+	}
+}
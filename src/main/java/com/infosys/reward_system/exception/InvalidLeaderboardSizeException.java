@@ -0,0 +1,9 @@
+package com.infosys.reward_system.exception;
+
+public class InvalidLeaderboardSizeException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidLeaderboardSizeException(int size, int maxSize) {
+		super(String.format("Invalid n: %d must be between 1 and %d", size, maxSize));
+	}
+}
@@ -0,0 +1,9 @@
+package com.infosys.reward_system.exception;
+
+public class InvalidPageSizeException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidPageSizeException(int limit, int maxLimit) {
+		super(String.format("Invalid limit: %d must be between 1 and %d", limit, maxLimit));
+	}
+}
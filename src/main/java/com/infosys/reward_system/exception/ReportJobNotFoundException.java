@@ -0,0 +1,9 @@
+package com.infosys.reward_system.exception;
+
+public class ReportJobNotFoundException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ReportJobNotFoundException(String jobId) {
+		super(String.format("Report job %s not found.", jobId));
+	}
+}
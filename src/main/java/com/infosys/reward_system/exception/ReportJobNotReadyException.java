@@ -0,0 +1,11 @@
+package com.infosys.reward_system.exception;
+
+import com.infosys.reward_system.model.RewardReportJobStatus;
+
+public class ReportJobNotReadyException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ReportJobNotReadyException(String jobId, RewardReportJobStatus status) {
+		super(String.format("Report job %s has no result: job is %s.", jobId, status));
+	}
+}
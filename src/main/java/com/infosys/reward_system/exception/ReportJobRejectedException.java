@@ -0,0 +1,9 @@
+package com.infosys.reward_system.exception;
+
+public class ReportJobRejectedException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ReportJobRejectedException(int queueCapacity) {
+		super(String.format("Report queue is full (%d jobs waiting), retry later.", queueCapacity));
+	}
+}
@@ -0,0 +1,38 @@
+package com.infosys.reward_system.metrics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson converter that times every JSON response it writes, tagged with the
+ * simple name of the written type ({@code Collection} for lists).
+ */
+public class MeteredJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+	private final RewardMetrics rewardMetrics;
+
+	public MeteredJsonHttpMessageConverter(ObjectMapper objectMapper, RewardMetrics rewardMetrics) {
+		super(objectMapper);
+		this.rewardMetrics = rewardMetrics;
+	}
+
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		String writtenType = object instanceof Collection ? "Collection" : object.getClass().getSimpleName();
+		long startedAt = System.nanoTime();
+		try {
+			super.writeInternal(object, type, outputMessage);
+		} finally {
+			rewardMetrics.serializationTimer(writtenType).record(System.nanoTime() - startedAt,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+}
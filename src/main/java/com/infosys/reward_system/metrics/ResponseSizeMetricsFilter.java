@@ -0,0 +1,126 @@
+package com.infosys.reward_system.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the size of every {@code /api} response body as it is written,
+ * without buffering it, so streamed responses are measured too. Asynchronous
+ * responses are recorded when the request completes.
+ */
+@Component
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+	private final RewardMetrics rewardMetrics;
+
+	public ResponseSizeMetricsFilter(RewardMetrics rewardMetrics) {
+		this.rewardMetrics = rewardMetrics;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		CountingResponse countingResponse = new CountingResponse(response);
+		chain.doFilter(request, countingResponse);
+
+		if (request.isAsyncStarted()) {
+			request.getAsyncContext().addListener(new AsyncListener() {
+				@Override
+				public void onComplete(AsyncEvent event) {
+					record(request, countingResponse);
+				}
+
+				@Override
+				public void onTimeout(AsyncEvent event) {
+				}
+
+				@Override
+				public void onError(AsyncEvent event) {
+				}
+
+				@Override
+				public void onStartAsync(AsyncEvent event) {
+				}
+			});
+		} else {
+			record(request, countingResponse);
+		}
+	}
+
+	private void record(HttpServletRequest request, CountingResponse response) {
+		Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		rewardMetrics.recordResponseSize(request.getMethod(), uri == null ? "UNKNOWN" : uri.toString(),
+				response.bytesWritten);
+	}
+
+	/**
+	 * Counts the bytes written through the output stream, which is what the
+	 * message converters and streaming bodies use.
+	 */
+	private static class CountingResponse extends HttpServletResponseWrapper {
+		private volatile long bytesWritten;
+		private ServletOutputStream countingStream;
+
+		CountingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (countingStream == null) {
+				ServletOutputStream delegate = super.getOutputStream();
+				countingStream = new ServletOutputStream() {
+					@Override
+					public void write(int b) throws IOException {
+						delegate.write(b);
+						bytesWritten++;
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						delegate.write(b, off, len);
+						bytesWritten += len;
+					}
+
+					@Override
+					public void flush() throws IOException {
+						delegate.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						delegate.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return delegate.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						delegate.setWriteListener(writeListener);
+					}
+				};
+			}
+			return countingStream;
+		}
+	}
+}
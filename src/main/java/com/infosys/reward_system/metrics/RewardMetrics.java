@@ -0,0 +1,69 @@
+package com.infosys.reward_system.metrics;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Reward-specific meters, complementing the {@code http.server.requests} and
+ * {@code spring.data.repository.invocations} timers Spring Boot records on its
+ * own. Every tag takes its value from a small fixed set (an operation, a
+ * query, a URI template or a result type), never from a customer id or date.
+ */
+@Component
+public class RewardMetrics {
+	private final MeterRegistry registry;
+	private final Counter customersNotFound;
+	private final DistributionSummary customerTransactions;
+
+	public RewardMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		this.customersNotFound = Counter.builder("reward.customer.not.found")
+				.description("Customer lookups without transactions in the requested range").register(registry);
+		this.customerTransactions = DistributionSummary.builder("reward.customer.transactions")
+				.description("Transactions processed per customer reward").register(registry);
+	}
+
+	public void customerNotFound() {
+		customersNotFound.increment();
+	}
+
+	public void recordCustomerTransactions(int transactions) {
+		customerTransactions.record(transactions);
+	}
+
+	/**
+	 * Records the rows a reward query read back; {@code query} names the kind of
+	 * query, e.g. {@code all} or {@code customer}.
+	 */
+	public void recordRows(String query, long rows) {
+		DistributionSummary.builder("reward.repository.rows").description("Rows read per reward query")
+				.tag("query", query).register(registry).record(rows);
+	}
+
+	public Timer.Sample startCalculation() {
+		return Timer.start(registry);
+	}
+
+	/**
+	 * Stops a sample started by {@link #startCalculation()}, attributing the time
+	 * spent turning rows into rewards to {@code operation}.
+	 */
+	public void stopCalculation(Timer.Sample sample, String operation) {
+		sample.stop(Timer.builder("reward.calculation").description("Time spent turning rows into rewards")
+				.tag("operation", operation).register(registry));
+	}
+
+	public Timer serializationTimer(String type) {
+		return Timer.builder("reward.json.serialization").description("Time spent writing JSON responses")
+				.tag("type", type).register(registry);
+	}
+
+	public void recordResponseSize(String method, String uri, long bytes) {
+		DistributionSummary.builder("reward.http.response.size").description("Response body size")
+				.baseUnit("bytes").tag("method", method).tag("uri", uri).register(registry).record(bytes);
+	}
+}
@@ -0,0 +1,43 @@
+package com.infosys.reward_system.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing the reward points a customer earned in one calendar
+ * month ({@code yyyy-MM}), kept up to date as transactions are written.
+ */
+@Entity
+@Table(name = "customer_monthly_rewards")
+@IdClass(CustomerMonthlyRewardId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerMonthlyReward {
+	@Id
+	@Column(name = "customer_id")
+	private int customerId;
+
+	@Id
+	@Column(name = "yyyy_mm", length = 7)
+	private String yearMonth;
+
+	@Column(name = "customer_name")
+	private String customerName;
+
+	@Column(name = "points")
+	private int points;
+
+	@Column(name = "txn_count")
+	private int txnCount;
+
+}
@@ -0,0 +1,20 @@
+package com.infosys.reward_system.model;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Composite key of {@link CustomerMonthlyReward}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerMonthlyRewardId implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private int customerId;
+	private String yearMonth;
+}
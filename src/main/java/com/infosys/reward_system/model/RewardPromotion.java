@@ -0,0 +1,43 @@
+package com.infosys.reward_system.model;
+
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing a promotion: transactions dated from {@code startDate}
+ * to {@code endDate} inclusive earn {@code multiplierPercent} percent of their
+ * tier points (200 doubles them).
+ */
+@Entity
+@Table(name = "reward_promotions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardPromotion {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "promotion_id")
+	private Integer promotionId;
+
+	@Column(name = "start_date")
+	private LocalDate startDate;
+
+	@Column(name = "end_date")
+	private LocalDate endDate;
+
+	@Column(name = "multiplier_percent")
+	private int multiplierPercent;
+
+}
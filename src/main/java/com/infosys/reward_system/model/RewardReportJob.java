@@ -0,0 +1,57 @@
+package com.infosys.reward_system.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing an asynchronous all-customer reward report. The result
+ * itself is kept in a file named after {@code jobId}.
+ */
+@Entity
+@Table(name = "reward_report_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardReportJob {
+	@Id
+	@Column(name = "job_id", length = 36)
+	private String jobId;
+
+	@Column(name = "start_date")
+	private LocalDate startDate;
+
+	@Column(name = "end_date")
+	private LocalDate endDate;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", length = 16)
+	private RewardReportJobStatus status;
+
+	@Column(name = "customers_total")
+	private Integer customersTotal;
+
+	@Column(name = "customers_done")
+	private int customersDone;
+
+	@Column(name = "error", length = 1000)
+	private String error;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+}
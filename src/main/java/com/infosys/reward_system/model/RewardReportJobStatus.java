@@ -0,0 +1,5 @@
+package com.infosys.reward_system.model;
+
+public enum RewardReportJobStatus {
+	QUEUED, RUNNING, SUCCEEDED, FAILED
+}
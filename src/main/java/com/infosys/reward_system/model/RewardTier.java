@@ -0,0 +1,32 @@
+package com.infosys.reward_system.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing one reward tier: every whole dollar of a transaction
+ * above {@code thresholdAmount}, up to the next tier's threshold, earns
+ * {@code pointsPerDollar} points.
+ */
+@Entity
+@Table(name = "reward_tiers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardTier {
+	@Id
+	@Column(name = "threshold_amount")
+	private int thresholdAmount;
+
+	@Column(name = "points_per_dollar")
+	private int pointsPerDollar;
+
+}
@@ -8,6 +8,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 import lombok.AllArgsConstructor;
@@ -16,10 +17,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Entity representing a transaction record.
+ * Entity representing a transaction record. The composite index mirrors the one
+ * declared in {@code schema.sql}.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_customer_date_amount",
+		columnList = "customer_id, transaction_date, amount"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
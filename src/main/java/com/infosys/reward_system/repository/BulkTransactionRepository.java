@@ -0,0 +1,93 @@
+package com.infosys.reward_system.repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.Transaction;
+
+/**
+ * Batched JDBC writes for bulk loads, and the ledger upsert of single saved
+ * transactions. Transactions are inserted without an id so the database
+ * assigns the identity values in one batch, which Hibernate cannot do for a
+ * {@code GenerationType.IDENTITY} entity.
+ */
+@Repository
+public class BulkTransactionRepository {
+	private static final String INSERT_TRANSACTION = "INSERT INTO transactions "
+			+ "(customer_id, customer_name, amount, transaction_date) VALUES (?, ?, ?, ?)";
+
+	private static final String MERGE_LEDGER_DELTA = "MERGE INTO customer_monthly_rewards r "
+			+ "USING (VALUES (CAST(? AS INTEGER), CAST(? AS CHAR(7)), CAST(? AS VARCHAR(255)), "
+			+ "CAST(? AS INTEGER), CAST(? AS INTEGER))) AS d (customer_id, yyyy_mm, customer_name, points, txn_count) "
+			+ "ON r.customer_id = d.customer_id AND r.yyyy_mm = d.yyyy_mm "
+			+ "WHEN MATCHED THEN UPDATE SET points = r.points + d.points, txn_count = r.txn_count + d.txn_count "
+			+ "WHEN NOT MATCHED THEN INSERT (customer_id, yyyy_mm, customer_name, points, txn_count) "
+			+ "VALUES (d.customer_id, d.yyyy_mm, d.customer_name, d.points, d.txn_count)";
+
+	private static final Comparator<CustomerMonthlyReward> LEDGER_ORDER = Comparator
+			.comparingInt(CustomerMonthlyReward::getCustomerId).thenComparing(CustomerMonthlyReward::getYearMonth);
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public BulkTransactionRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public void insertTransactions(List<Transaction> transactions) {
+		jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions, transactions.size(), (statement, row) -> {
+			statement.setInt(1, row.getCustomerId());
+			statement.setString(2, row.getCustomerName());
+			statement.setBigDecimal(3, row.getAmount());
+			statement.setDate(4, Date.valueOf(row.getTransactionDate()));
+		});
+	}
+
+	/**
+	 * Adds each row's points and transaction count to the customer's ledger month,
+	 * creating the month when it does not exist yet. The months are locked in key
+	 * order, so concurrent chunks cannot deadlock on them. When a concurrent
+	 * transaction creates one of the months first, the batch fails with a
+	 * {@link DuplicateKeyException} once the other transaction commits, and the
+	 * caller's transaction is to be run again.
+	 */
+	public void addToLedger(Collection<CustomerMonthlyReward> deltas) {
+		List<CustomerMonthlyReward> rows = new ArrayList<>(deltas);
+		rows.sort(LEDGER_ORDER);
+		jdbcTemplate.batchUpdate(MERGE_LEDGER_DELTA, rows, rows.size(), (statement, delta) -> {
+			statement.setInt(1, delta.getCustomerId());
+			statement.setString(2, delta.getYearMonth());
+			statement.setString(3, delta.getCustomerName());
+			statement.setInt(4, delta.getPoints());
+			statement.setInt(5, delta.getTxnCount());
+		});
+	}
+
+	/**
+	 * Adds one row's points and transaction count to the customer's ledger month,
+	 * creating the month when it does not exist yet. When a concurrent
+	 * transaction creates the same month first, H2 fails this insert once the
+	 * other transaction commits; the repeated merge then finds the month. Unlike a
+	 * JPA query, a failed JDBC statement leaves the surrounding transaction
+	 * usable.
+	 */
+	public void addToLedger(CustomerMonthlyReward delta) {
+		try {
+			mergeLedgerDelta(delta);
+		} catch (DuplicateKeyException ex) {
+			mergeLedgerDelta(delta);
+		}
+	}
+
+	private void mergeLedgerDelta(CustomerMonthlyReward delta) {
+		jdbcTemplate.update(MERGE_LEDGER_DELTA, delta.getCustomerId(), delta.getYearMonth(), delta.getCustomerName(),
+				delta.getPoints(), delta.getTxnCount());
+	}
+}
@@ -0,0 +1,24 @@
+package com.infosys.reward_system.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.CustomerMonthlyRewardId;
+
+@Repository
+public interface CustomerMonthlyRewardRepository
+		extends JpaRepository<CustomerMonthlyReward, CustomerMonthlyRewardId> {
+	List<CustomerMonthlyReward> findByCustomerIdOrderByYearMonthAsc(int customerId);
+
+	List<CustomerMonthlyReward> findByCustomerIdAndYearMonthBetweenOrderByYearMonthAsc(int customerId,
+			String fromYearMonth, String toYearMonth);
+
+	List<CustomerMonthlyReward> findAllByOrderByCustomerIdAscYearMonthAsc();
+
+	List<CustomerMonthlyReward> findByYearMonthBetweenOrderByCustomerIdAscYearMonthAsc(String fromYearMonth,
+			String toYearMonth);
+
+}
@@ -0,0 +1,142 @@
+package com.infosys.reward_system.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.infosys.reward_system.repository.projection.CustomerRewardTotal;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+import com.infosys.reward_system.repository.projection.MonthlyRewardPoints;
+import com.infosys.reward_system.rules.RewardRules;
+
+/**
+ * Reward aggregations evaluated by the database. The points of each row are
+ * computed by the SQL rendering of the {@link RewardRules} passed in, so the
+ * statements are assembled per call rather than declared as fixed queries.
+ */
+@Repository
+public class RewardAggregationRepository {
+	private static final String MONTHLY_REWARD_POINTS_GROUP_BY = " GROUP BY t.customer_id, YEAR(t.transaction_date),"
+			+ " MONTH(t.transaction_date) ORDER BY t.customer_id, rewardYear, rewardMonth";
+
+	private static final String DELETE_LEDGER = "DELETE FROM customer_monthly_rewards";
+	private static final String DELETE_LEDGER_RULES = "DELETE FROM reward_ledger_rules";
+	private static final String LEDGER_REWARD_TOTALS = "SELECT r.customer_id, MAX(r.customer_name), SUM(r.points)"
+			+ " FROM customer_monthly_rewards r";
+
+	private static final RowMapper<MonthlyRewardPoints> MONTHLY_REWARD_POINTS_MAPPER = (rs,
+			rowNum) -> new MonthlyRewardPoints(rs.getInt("customerId"), rs.getString("customerName"),
+					rs.getInt("rewardYear"), rs.getInt("rewardMonth"), rs.getLong("points"));
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public RewardAggregationRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public List<MonthlyRewardPoints> findMonthlyRewardPointsByTransactionDateBetween(RewardRules rules,
+			LocalDate startDate, LocalDate endDate) {
+		return jdbcTemplate.query(monthlyRewardPointsSql(rules, "WHERE t.transaction_date BETWEEN ? AND ?"),
+				MONTHLY_REWARD_POINTS_MAPPER, Date.valueOf(startDate), Date.valueOf(endDate));
+	}
+
+	public List<MonthlyRewardPoints> findMonthlyRewardPointsByCustomerIdAndTransactionDateBetween(RewardRules rules,
+			int customerId, LocalDate startDate, LocalDate endDate) {
+		return jdbcTemplate.query(
+				monthlyRewardPointsSql(rules,
+						"WHERE t.customer_id = ? AND t.transaction_date BETWEEN ? AND ?"),
+				MONTHLY_REWARD_POINTS_MAPPER, customerId, Date.valueOf(startDate), Date.valueOf(endDate));
+	}
+
+	/**
+	 * Hands the reward points of every customer and transaction day under
+	 * {@code rules} to {@code sink}, ordered by customer and day, as they are
+	 * read.
+	 */
+	public void streamDailyRewardPoints(RewardRules rules, Consumer<DailyRewardPoints> sink) {
+		jdbcTemplate.query("SELECT t.customer_id, MAX(t.customer_name), t.transaction_date, SUM("
+				+ rules.toSql("t.amount", "t.transaction_date") + ") FROM transactions t"
+				+ " GROUP BY t.customer_id, t.transaction_date ORDER BY t.customer_id, t.transaction_date",
+				(RowCallbackHandler) rs -> sink.accept(new DailyRewardPoints(rs.getInt(1), rs.getString(2),
+						rs.getDate(3).toLocalDate(), rs.getLong(4))));
+	}
+
+	/**
+	 * Hands every customer's ledger points to {@code sink}, one total per
+	 * customer, as they are read.
+	 */
+	public void streamLedgerRewardTotals(Consumer<CustomerRewardTotal> sink) {
+		jdbcTemplate.query(LEDGER_REWARD_TOTALS + " GROUP BY r.customer_id", rewardTotalsHandler(sink));
+	}
+
+	/**
+	 * Hands every customer's ledger points of the months between
+	 * {@code startMonth} and {@code endMonth} ({@code yyyy-MM}) to {@code sink},
+	 * one total per customer, as they are read.
+	 */
+	public void streamLedgerRewardTotalsByYearMonthBetween(String startMonth, String endMonth,
+			Consumer<CustomerRewardTotal> sink) {
+		jdbcTemplate.query(LEDGER_REWARD_TOTALS + " WHERE r.yyyy_mm BETWEEN ? AND ? GROUP BY r.customer_id",
+				rewardTotalsHandler(sink), startMonth, endMonth);
+	}
+
+	/**
+	 * Hands the reward points under {@code rules} of every customer's
+	 * transactions between the dates to {@code sink}, one total per customer,
+	 * as they are read.
+	 */
+	public void streamRewardTotalsByTransactionDateBetween(RewardRules rules, LocalDate startDate,
+			LocalDate endDate, Consumer<CustomerRewardTotal> sink) {
+		jdbcTemplate.query("SELECT t.customer_id, MAX(t.customer_name), SUM("
+				+ rules.toSql("t.amount", "t.transaction_date") + ") FROM transactions t"
+				+ " WHERE t.transaction_date BETWEEN ? AND ? GROUP BY t.customer_id", rewardTotalsHandler(sink),
+				Date.valueOf(startDate), Date.valueOf(endDate));
+	}
+
+	/**
+	 * Version of the rules the ledger was last rebuilt under; {@code null} before
+	 * the first rebuild.
+	 */
+	public String findLedgerRulesVersion() {
+		List<String> versions = jdbcTemplate.queryForList("SELECT rules_version FROM reward_ledger_rules",
+				String.class);
+		return versions.isEmpty() ? null : versions.get(0);
+	}
+
+	/**
+	 * Replaces the whole {@code customer_monthly_rewards} ledger with one
+	 * recomputed from the transactions under {@code rules}, and records their
+	 * version; must run inside a transaction.
+	 */
+	public int rebuildLedger(RewardRules rules) {
+		jdbcTemplate.update(DELETE_LEDGER);
+		jdbcTemplate.update(DELETE_LEDGER_RULES);
+		jdbcTemplate.update("INSERT INTO reward_ledger_rules (rules_version) VALUES (?)", rules.getVersion());
+		return jdbcTemplate.update("INSERT INTO customer_monthly_rewards "
+				+ "(customer_id, yyyy_mm, customer_name, points, txn_count) "
+				+ "SELECT t.customer_id, FORMATDATETIME(t.transaction_date, 'yyyy-MM'), MAX(t.customer_name), SUM("
+				+ rules.toSql("t.amount", "t.transaction_date") + "), COUNT(*) FROM transactions t "
+				+ "GROUP BY t.customer_id, FORMATDATETIME(t.transaction_date, 'yyyy-MM')");
+	}
+
+	private static RowCallbackHandler rewardTotalsHandler(Consumer<CustomerRewardTotal> sink) {
+		return rs -> sink.accept(new CustomerRewardTotal(rs.getInt(1), rs.getString(2), rs.getLong(3)));
+	}
+
+	/**
+	 * Per-customer, per-month reward points of the transactions matching
+	 * {@code where}, with the rules evaluated by the database.
+	 */
+	static String monthlyRewardPointsSql(RewardRules rules, String where) {
+		return "SELECT t.customer_id AS customerId, MAX(t.customer_name) AS customerName, "
+				+ "YEAR(t.transaction_date) AS rewardYear, MONTH(t.transaction_date) AS rewardMonth, SUM("
+				+ rules.toSql("t.amount", "t.transaction_date") + ") AS points FROM transactions t " + where
+				+ MONTHLY_REWARD_POINTS_GROUP_BY;
+	}
+}
@@ -0,0 +1,13 @@
+package com.infosys.reward_system.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.infosys.reward_system.model.RewardPromotion;
+
+@Repository
+public interface RewardPromotionRepository extends JpaRepository<RewardPromotion, Integer> {
+	List<RewardPromotion> findAllByOrderByStartDateAsc();
+}
@@ -0,0 +1,18 @@
+package com.infosys.reward_system.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.infosys.reward_system.model.RewardReportJob;
+import com.infosys.reward_system.model.RewardReportJobStatus;
+
+@Repository
+public interface RewardReportJobRepository extends JpaRepository<RewardReportJob, String> {
+	List<RewardReportJob> findByFinishedAtBefore(LocalDateTime finishedBefore);
+
+	List<RewardReportJob> findByStatusIn(Collection<RewardReportJobStatus> statuses);
+}
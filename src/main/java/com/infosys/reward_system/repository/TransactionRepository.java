@@ -1,21 +1,142 @@
 package com.infosys.reward_system.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.projection.TransactionRow;
+import com.infosys.reward_system.repository.projection.TransactionsVersion;
 
 @Repository
+@Transactional(readOnly = true)
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
-	List<Transaction> findByCustomerId(int customerId);
+	String STREAM_FETCH_SIZE = "500";
+
+	/**
+	 * A single customer's reward rows: every selected column is in the composite
+	 * customer index, so the database never has to visit the table.
+	 */
+	String CUSTOMER_ROW_SELECT = "SELECT new com.infosys.reward_system.repository.projection.TransactionRow("
+			+ "t.customerId, t.transactionId, t.amount, t.transactionDate) FROM Transaction t ";
+
+	String ROW_SELECT = "SELECT new com.infosys.reward_system.repository.projection.TransactionRow("
+			+ "t.customerId, t.customerName, t.transactionId, t.amount, t.transactionDate) FROM Transaction t ";
+
+	String BY_CUSTOMER = " ORDER BY t.customerId, t.transactionId";
+
+	String VERSION_SELECT = "SELECT new com.infosys.reward_system.repository.projection.TransactionsVersion("
+			+ "COUNT(t), MAX(t.transactionId)) FROM Transaction t ";
+
+	@Query(CUSTOMER_ROW_SELECT + "WHERE t.customerId = :customerId")
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByCustomerId(@Param("customerId") int customerId);
+
+	@Query(CUSTOMER_ROW_SELECT
+			+ "WHERE t.customerId = :customerId AND t.transactionDate BETWEEN :startDate AND :endDate")
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByCustomerIdAndTransactionDateBetween(@Param("customerId") int customerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	/**
+	 * The customer's name as recorded on its transactions; pass a page of one to
+	 * read a single row.
+	 */
+	@Query("SELECT t.customerName FROM Transaction t WHERE t.customerId = :customerId")
+	List<String> findCustomerNames(@Param("customerId") int customerId, Pageable pageable);
+
+	@Query(ROW_SELECT + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findAllRowsOrderByCustomer();
+
+	@Query(ROW_SELECT + "WHERE t.transactionDate BETWEEN :startDate AND :endDate" + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByTransactionDateBetweenOrderByCustomer(@Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
 
-	List<Transaction> findByCustomerIdAndTransactionDateBetween(int customerId, LocalDate startDate, LocalDate endDate);
+	/**
+	 * Streams every transaction grouped by customer; must be consumed inside a
+	 * transaction and closed afterwards.
+	 */
+	@Query(ROW_SELECT + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	Stream<TransactionRow> streamAllRowsOrderByCustomer();
 
-	@Query("SELECT DISTINCT t.customerId FROM Transaction t")
+	@Query(ROW_SELECT + "WHERE t.transactionDate BETWEEN :startDate AND :endDate" + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	Stream<TransactionRow> streamRowsByTransactionDateBetweenOrderByCustomer(@Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+
+	@Query(VERSION_SELECT + "WHERE t.customerId = :customerId")
+	TransactionsVersion findVersionByCustomerId(@Param("customerId") int customerId);
+
+	@Query(VERSION_SELECT + "WHERE t.customerId = :customerId AND t.transactionDate BETWEEN :startDate AND :endDate")
+	TransactionsVersion findVersionByCustomerIdAndTransactionDateBetween(@Param("customerId") int customerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Query("SELECT DISTINCT t.customerId FROM Transaction t ORDER BY t.customerId")
 	List<Integer> findDistinctCustomerIds();
 
-}
\ No newline at end of file
+	@Query("SELECT COUNT(DISTINCT t.customerId) FROM Transaction t")
+	long countDistinctCustomerIds();
+
+	@Query("SELECT COUNT(DISTINCT t.customerId) FROM Transaction t "
+			+ "WHERE t.transactionDate BETWEEN :startDate AND :endDate")
+	long countDistinctCustomerIdsWithTransactionDateBetween(@Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+
+	/**
+	 * Keyset page of customer ids: the {@code pageable} must only carry a page
+	 * size, the position comes from {@code afterCustomerId}.
+	 */
+	@Query("SELECT DISTINCT t.customerId FROM Transaction t WHERE t.customerId > :afterCustomerId"
+			+ " ORDER BY t.customerId")
+	List<Integer> findCustomerIdsAfter(@Param("afterCustomerId") int afterCustomerId, Pageable pageable);
+
+	@Query("SELECT DISTINCT t.customerId FROM Transaction t WHERE t.customerId > :afterCustomerId"
+			+ " AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.customerId")
+	List<Integer> findCustomerIdsAfterWithTransactionDateBetween(@Param("afterCustomerId") int afterCustomerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+	@Query(ROW_SELECT + "WHERE t.customerId BETWEEN :fromCustomerId AND :toCustomerId" + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByCustomerIdBetween(@Param("fromCustomerId") int fromCustomerId,
+			@Param("toCustomerId") int toCustomerId);
+
+	@Query(ROW_SELECT + "WHERE t.customerId BETWEEN :fromCustomerId AND :toCustomerId"
+			+ " AND t.transactionDate BETWEEN :startDate AND :endDate" + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByCustomerIdBetweenAndTransactionDateBetween(
+			@Param("fromCustomerId") int fromCustomerId, @Param("toCustomerId") int toCustomerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	/**
+	 * Rows of a chunk of specific customers, a single index range scan per id;
+	 * callers keep the chunks small enough for the database's limit on
+	 * {@code IN} list length.
+	 */
+	@Query(ROW_SELECT + "WHERE t.customerId IN :customerIds" + BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByCustomerIdInOrderByCustomer(@Param("customerIds") Collection<Integer> customerIds);
+
+	@Query(ROW_SELECT + "WHERE t.customerId IN :customerIds AND t.transactionDate BETWEEN :startDate AND :endDate"
+			+ BY_CUSTOMER)
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+	List<TransactionRow> findRowsByCustomerIdInAndTransactionDateBetweenOrderByCustomer(
+			@Param("customerIds") Collection<Integer> customerIds, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+
+}
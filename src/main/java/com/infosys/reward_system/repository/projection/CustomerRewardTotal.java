@@ -0,0 +1,13 @@
+package com.infosys.reward_system.repository.projection;
+
+import lombok.Value;
+
+/**
+ * Reward points earned by a customer over a whole date range.
+ */
+@Value
+public class CustomerRewardTotal {
+	int customerId;
+	String customerName;
+	long points;
+}
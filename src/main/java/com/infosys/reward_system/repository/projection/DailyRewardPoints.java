@@ -0,0 +1,16 @@
+package com.infosys.reward_system.repository.projection;
+
+import java.time.LocalDate;
+
+import lombok.Value;
+
+/**
+ * Reward points earned by a customer on one day.
+ */
+@Value
+public class DailyRewardPoints {
+	int customerId;
+	String customerName;
+	LocalDate transactionDate;
+	long points;
+}
@@ -0,0 +1,16 @@
+package com.infosys.reward_system.repository.projection;
+
+import lombok.Value;
+
+/**
+ * Reward points earned by a customer in one calendar month, as aggregated by
+ * the database.
+ */
+@Value
+public class MonthlyRewardPoints {
+	int customerId;
+	String customerName;
+	int rewardYear;
+	int rewardMonth;
+	long points;
+}
@@ -0,0 +1,27 @@
+package com.infosys.reward_system.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * The columns of a transaction the reward calculation reads, selected through
+ * a constructor expression so rows never become managed entities.
+ * {@code customerName} is only selected by the multi-customer queries; a
+ * single customer's name is read once, separately.
+ */
+@Value
+@AllArgsConstructor
+public class TransactionRow {
+	int customerId;
+	String customerName;
+	int transactionId;
+	BigDecimal amount;
+	LocalDate transactionDate;
+
+	public TransactionRow(int customerId, int transactionId, BigDecimal amount, LocalDate transactionDate) {
+		this(customerId, null, transactionId, amount, transactionDate);
+	}
+}
@@ -0,0 +1,14 @@
+package com.infosys.reward_system.repository.projection;
+
+import lombok.Value;
+
+/**
+ * Row count and highest transaction id of a set of transactions. Transactions
+ * are only ever appended, so the pair changes whenever the set does and serves
+ * as its version without reading the rows themselves.
+ */
+@Value
+public class TransactionsVersion {
+	long transactionCount;
+	Integer maxTransactionId;
+}
@@ -0,0 +1,347 @@
+package com.infosys.reward_system.rules;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.infosys.reward_system.model.RewardPromotion;
+import com.infosys.reward_system.model.RewardTier;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Reward tiers and promotions compiled into sorted arrays, immutable once
+ * built.
+ * <p>
+ * The default tiers compile to the hard-coded formula they replaced, and other
+ * rules of up to two tiers are worked out in closed form. With more tiers,
+ * points below the first threshold and above the top one are still worked out
+ * in closed form, amounts in between are read from a table of the points of
+ * every whole dollar amount, and past {@value #MAX_TABLE_DOLLARS} dollars
+ * found by binary search over the sorted thresholds, with the points up to
+ * each threshold precomputed. Promotions, which may overlap, are flattened
+ * into disjoint day ranges carrying the highest multiplier in force, and laid
+ * out as a table of the multiplier of every day from the first promotion day
+ * to the last, up to {@value #MAX_TABLE_DAYS} days, so a transaction outside
+ * them costs two date compares. The same rules render as a SQL expression for
+ * the aggregations the database runs.
+ */
+@EqualsAndHashCode
+public final class RewardRules {
+	private static final int NO_PROMOTION_PERCENT = 100;
+	private static final int MAX_TABLE_DOLLARS = 10_000;
+	private static final int MAX_TABLE_DAYS = 3660;
+
+	private final int[] thresholds;
+	/** Points earned by a transaction of exactly {@code thresholds[i]} dollars. */
+	private final long[] thresholdPoints;
+	private final int[] pointsPerDollar;
+	/** 50 at 1 point and 100 at 2 points, as seeded. */
+	@EqualsAndHashCode.Exclude
+	private final boolean defaultTiers;
+	/** Two tiers at most: lower and upper tier, either of which may earn nothing. */
+	@EqualsAndHashCode.Exclude
+	private final boolean closedForm;
+	@EqualsAndHashCode.Exclude
+	private final long lowerThreshold;
+	@EqualsAndHashCode.Exclude
+	private final long lowerTierDollars;
+	@EqualsAndHashCode.Exclude
+	private final long lowerPointsPerDollar;
+	@EqualsAndHashCode.Exclude
+	private final long upperThreshold;
+	@EqualsAndHashCode.Exclude
+	private final long upperPointsPerDollar;
+	/** Tier points of each whole dollar amount up to the highest tabled threshold. */
+	@EqualsAndHashCode.Exclude
+	private final int[] pointsByDollar;
+	@EqualsAndHashCode.Exclude
+	private final int firstThreshold;
+	@EqualsAndHashCode.Exclude
+	private final int topThreshold;
+	@EqualsAndHashCode.Exclude
+	private final long topThresholdPoints;
+	@EqualsAndHashCode.Exclude
+	private final int topPointsPerDollar;
+
+	/** First epoch day of each promotion range; the first range starts before any date. */
+	private final long[] rangeStartDays;
+	private final int[] rangePercents;
+	@EqualsAndHashCode.Exclude
+	private final boolean promotions;
+	@EqualsAndHashCode.Exclude
+	private final long firstPromotionDay;
+	/** First and last day of any promotion; dates outside skip the epoch day conversion. */
+	@EqualsAndHashCode.Exclude
+	private final LocalDate firstPromotionDate;
+	@EqualsAndHashCode.Exclude
+	private final LocalDate lastPromotionDate;
+	/** Multiplier of each day from {@link #firstPromotionDay}; {@code null} when there are too many days. */
+	@EqualsAndHashCode.Exclude
+	private final int[] percentByDay;
+	@EqualsAndHashCode.Exclude
+	private final String version;
+
+	private RewardRules(int[] thresholds, long[] thresholdPoints, int[] pointsPerDollar, long[] rangeStartDays,
+			int[] rangePercents) {
+		this.thresholds = thresholds;
+		this.thresholdPoints = thresholdPoints;
+		this.pointsPerDollar = pointsPerDollar;
+		int top = thresholds.length - 1;
+		this.closedForm = top < 2;
+		this.defaultTiers = Arrays.equals(thresholds, new int[] { 50, 100 })
+				&& Arrays.equals(pointsPerDollar, new int[] { 1, 2 });
+		this.lowerThreshold = top < 0 ? 0 : thresholds[0];
+		this.lowerTierDollars = top < 1 ? 0 : thresholds[1] - thresholds[0];
+		this.lowerPointsPerDollar = top < 1 ? 0 : pointsPerDollar[0];
+		this.upperThreshold = top < 0 ? 0 : thresholds[top];
+		this.upperPointsPerDollar = top < 0 ? 0 : pointsPerDollar[top];
+		this.pointsByDollar = new int[closedForm ? 0 : Math.min(thresholds[top], MAX_TABLE_DOLLARS) + 1];
+		for (int dollars = 0; dollars < pointsByDollar.length; dollars++) {
+			pointsByDollar[dollars] = searchTierPoints(dollars);
+		}
+		this.firstThreshold = top < 0 ? Integer.MAX_VALUE : thresholds[0];
+		this.topThreshold = top < 0 ? Integer.MAX_VALUE : thresholds[top];
+		this.topThresholdPoints = top < 0 ? 0 : thresholdPoints[top];
+		this.topPointsPerDollar = top < 0 ? 0 : pointsPerDollar[top];
+		this.rangeStartDays = rangeStartDays;
+		this.rangePercents = rangePercents;
+
+		int ranges = rangeStartDays.length;
+		this.promotions = ranges > 1;
+		this.firstPromotionDay = ranges == 1 ? 0 : rangeStartDays[1];
+		long promotionDays = ranges == 1 ? 0 : rangeStartDays[ranges - 1] - firstPromotionDay;
+		this.firstPromotionDate = promotions ? LocalDate.ofEpochDay(firstPromotionDay) : null;
+		this.lastPromotionDate = promotions ? LocalDate.ofEpochDay(firstPromotionDay + promotionDays - 1) : null;
+		this.percentByDay = promotionDays > MAX_TABLE_DAYS ? null : new int[(int) promotionDays];
+		if (percentByDay != null) {
+			for (int day = 0; day < percentByDay.length; day++) {
+				percentByDay[day] = searchPromotionPercent(firstPromotionDay + day);
+			}
+		}
+		this.version = digest("tiers " + Arrays.toString(thresholds) + " " + Arrays.toString(pointsPerDollar)
+				+ " promotions " + Arrays.toString(rangeStartDays) + " " + Arrays.toString(rangePercents));
+	}
+
+	/**
+	 * Compiles {@code tiers}, in any order, and {@code promotions}.
+	 *
+	 * @throws IllegalArgumentException if a threshold is negative or repeated, a
+	 *                                  rate is negative, the points up to a
+	 *                                  threshold do not fit an {@code int}, or
+	 *                                  a promotion has no dates, ends before it
+	 *                                  starts or has a non-positive multiplier
+	 */
+	public static RewardRules compile(List<RewardTier> tiers, List<RewardPromotion> promotions) {
+		RewardTier[] sortedTiers = tiers.toArray(new RewardTier[0]);
+		Arrays.sort(sortedTiers, (a, b) -> Integer.compare(a.getThresholdAmount(), b.getThresholdAmount()));
+
+		int[] thresholds = new int[sortedTiers.length];
+		long[] thresholdPoints = new long[sortedTiers.length];
+		int[] pointsPerDollar = new int[sortedTiers.length];
+		for (int i = 0; i < sortedTiers.length; i++) {
+			RewardTier tier = sortedTiers[i];
+			if (tier.getThresholdAmount() < 0 || tier.getPointsPerDollar() < 0) {
+				throw new IllegalArgumentException("Invalid reward tier: " + tier);
+			}
+			if (i > 0 && tier.getThresholdAmount() == thresholds[i - 1]) {
+				throw new IllegalArgumentException("Duplicate reward tier threshold: " + tier.getThresholdAmount());
+			}
+			thresholds[i] = tier.getThresholdAmount();
+			pointsPerDollar[i] = tier.getPointsPerDollar();
+			thresholdPoints[i] = i == 0 ? 0
+					: thresholdPoints[i - 1] + (long) pointsPerDollar[i - 1] * (thresholds[i] - thresholds[i - 1]);
+			if (thresholdPoints[i] > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Reward tier points overflow at threshold " + thresholds[i]);
+			}
+		}
+
+		TreeSet<Long> boundaries = new TreeSet<>();
+		for (RewardPromotion promotion : promotions) {
+			if (promotion.getStartDate() == null || promotion.getEndDate() == null
+					|| promotion.getStartDate().isAfter(promotion.getEndDate())
+					|| promotion.getMultiplierPercent() <= 0) {
+				throw new IllegalArgumentException("Invalid reward promotion: " + promotion);
+			}
+			boundaries.add(promotion.getStartDate().toEpochDay());
+			boundaries.add(promotion.getEndDate().toEpochDay() + 1);
+		}
+
+		List<Long> starts = new ArrayList<>();
+		List<Integer> percents = new ArrayList<>();
+		starts.add(Long.MIN_VALUE);
+		percents.add(NO_PROMOTION_PERCENT);
+		for (long day : boundaries) {
+			Integer percent = null;
+			for (RewardPromotion promotion : promotions) {
+				if (promotion.getStartDate().toEpochDay() <= day && day <= promotion.getEndDate().toEpochDay()) {
+					percent = percent == null ? promotion.getMultiplierPercent()
+							: Math.max(percent, promotion.getMultiplierPercent());
+				}
+			}
+			if (percent == null) {
+				percent = NO_PROMOTION_PERCENT;
+			}
+			if (!percent.equals(percents.get(percents.size() - 1))) {
+				starts.add(day);
+				percents.add(percent);
+			}
+		}
+
+		return new RewardRules(thresholds, thresholdPoints, pointsPerDollar,
+				starts.stream().mapToLong(Long::longValue).toArray(),
+				percents.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Reward points of a transaction of {@code amountCents} whole cents on
+	 * {@code transactionDate}; only whole dollars earn points.
+	 *
+	 * @throws ArithmeticException if the points do not fit an {@code int}
+	 */
+	public int points(long amountCents, LocalDate transactionDate) {
+		int points = dollarPoints(amountCents / 100);
+		if (!promotions || points == 0 || transactionDate.isBefore(firstPromotionDate)
+				|| transactionDate.isAfter(lastPromotionDate)) {
+			return points;
+		}
+		return promote(points, transactionDate.toEpochDay());
+	}
+
+	/**
+	 * {@link #points(long, LocalDate)} of a transaction dated by its epoch day.
+	 */
+	public int points(long amountCents, long epochDay) {
+		int points = dollarPoints(amountCents / 100);
+		return promotions && points != 0 ? promote(points, epochDay) : points;
+	}
+
+	/**
+	 * Tier points of a transaction of {@code dollars} whole dollars, before any
+	 * promotion.
+	 *
+	 * @throws ArithmeticException if the points do not fit an {@code int}
+	 */
+	public int tierPoints(int dollars) {
+		return dollarPoints(dollars);
+	}
+
+	/**
+	 * Overflow is only possible, and only checked, above the top threshold.
+	 * The default tiers are spelled out as constants so they compile to the
+	 * hard-coded formula they replaced.
+	 */
+	private int dollarPoints(long dollars) {
+		if (defaultTiers) {
+			return dollars <= 50 ? 0
+					: dollars <= 100 ? (int) (dollars - 50) : Math.toIntExact((dollars - 100) * 2 + 50);
+		}
+		if (closedForm) {
+			return dollars <= lowerThreshold ? 0
+					: dollars <= upperThreshold ? (int) (lowerPointsPerDollar * (dollars - lowerThreshold))
+							: Math.toIntExact(lowerPointsPerDollar * lowerTierDollars
+									+ Math.multiplyExact(upperPointsPerDollar, dollars - upperThreshold));
+		}
+		if (dollars <= firstThreshold) {
+			return 0;
+		}
+		if (dollars > topThreshold) {
+			return Math.toIntExact(
+					topThresholdPoints + Math.multiplyExact((long) topPointsPerDollar, dollars - topThreshold));
+		}
+		int wholeDollars = (int) dollars;
+		return wholeDollars < pointsByDollar.length ? pointsByDollar[wholeDollars] : searchTierPoints(wholeDollars);
+	}
+
+	private int searchTierPoints(int dollars) {
+		int found = Arrays.binarySearch(thresholds, dollars);
+		int tier = found >= 0 ? found - 1 : -found - 2; // highest threshold below dollars
+		if (tier < 0) {
+			return 0;
+		}
+		return Math.toIntExact(thresholdPoints[tier] + (long) pointsPerDollar[tier] * (dollars - thresholds[tier]));
+	}
+
+	private int promote(int points, long epochDay) {
+		int percent = promotionPercent(epochDay);
+		return percent == NO_PROMOTION_PERCENT ? points : Math.toIntExact((long) points * percent / 100);
+	}
+
+	/**
+	 * Fingerprint of the rules: the first 128 bits of the SHA-256 digest of their
+	 * tiers and promotion ranges, the same for equal rules in every run.
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * The reward points of one row as a SQL expression over the given amount and
+	 * date columns, evaluating exactly like {@link #points}. Built from numbers
+	 * and dates only, so it is safe to inline.
+	 */
+	public String toSql(String amountColumn, String dateColumn) {
+		String dollars = "FLOOR(" + amountColumn + ")";
+		StringBuilder sql = new StringBuilder();
+		if (thresholds.length == 0) {
+			sql.append('0');
+		} else {
+			sql.append("CASE WHEN ").append(dollars).append(" <= ").append(thresholds[0]).append(" THEN 0");
+			for (int i = 0; i < thresholds.length; i++) {
+				sql.append(i + 1 < thresholds.length
+						? " WHEN " + dollars + " <= " + thresholds[i + 1] + " THEN "
+						: " ELSE ");
+				sql.append(thresholdPoints[i]).append(" + ").append(pointsPerDollar[i]).append(" * (")
+						.append(dollars).append(" - ").append(thresholds[i]).append(')');
+			}
+			sql.append(" END");
+		}
+		if (rangeStartDays.length == 1) {
+			return sql.toString();
+		}
+
+		StringBuilder percent = new StringBuilder("CASE");
+		for (int i = 1; i < rangeStartDays.length; i++) {
+			if (rangePercents[i] != NO_PROMOTION_PERCENT) {
+				percent.append(" WHEN ").append(dateColumn).append(" BETWEEN DATE '")
+						.append(LocalDate.ofEpochDay(rangeStartDays[i])).append("' AND DATE '")
+						.append(LocalDate.ofEpochDay(rangeStartDays[i + 1] - 1)).append("' THEN ")
+						.append(rangePercents[i]);
+			}
+		}
+		percent.append(" ELSE ").append(NO_PROMOTION_PERCENT).append(" END");
+		return "FLOOR((" + sql + ") * " + percent + " / 100)";
+	}
+
+	private int promotionPercent(long epochDay) {
+		if (percentByDay == null) {
+			return searchPromotionPercent(epochDay);
+		}
+		long day = epochDay - firstPromotionDay;
+		return day < 0 || day >= percentByDay.length ? NO_PROMOTION_PERCENT : percentByDay[(int) day];
+	}
+
+	private int searchPromotionPercent(long epochDay) {
+		int found = Arrays.binarySearch(rangeStartDays, epochDay);
+		return rangePercents[found >= 0 ? found : -found - 2];
+	}
+
+	private static String digest(String rules) {
+		byte[] hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256").digest(rules.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every Java platform has SHA-256
+		}
+		StringBuilder hex = new StringBuilder(32);
+		for (int i = 0; i < 16; i++) {
+			hex.append(Character.forDigit(hash[i] >> 4 & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
+		}
+		return hex.toString();
+	}
+}
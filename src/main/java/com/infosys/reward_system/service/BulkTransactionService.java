@@ -0,0 +1,282 @@
+package com.infosys.reward_system.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.BulkIngestResultDto;
+import com.infosys.reward_system.dto.RejectedRowDto;
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.CustomerMonthlyRewardId;
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.BulkTransactionRepository;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads transactions from a CSV or NDJSON upload. The body is read line by line
+ * and written in chunks of {@code reward.bulk.chunk-size} rows, each chunk in
+ * its own database transaction together with its ledger deltas, so memory stays
+ * bounded by one chunk; each chunk's points reach the {@link RewardPointsIndex}
+ * once it commits. Invalid lines are rejected and reported without stopping the
+ * load. The {@link TransactionStore}, when enabled, is refreshed once the whole
+ * upload has been written.
+ */
+@Service
+@Slf4j
+public class BulkTransactionService {
+	private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+	/** Length of the {@code customer_name} columns in {@code schema.sql}. */
+	private static final int MAX_CUSTOMER_NAME_LENGTH = 255;
+	private static final List<String> CSV_HEADER = Arrays.asList("customerId", "customerName", "amount",
+			"transactionDate");
+	private static final int CSV_FIELDS = CSV_HEADER.size();
+
+	public enum Format {
+		CSV, NDJSON
+	}
+
+	private final BulkTransactionRepository bulkTransactionRepository;
+	private final CustomerRewardsCache customerRewardsCache;
+	private final RewardRuleEngine rewardRuleEngine;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectReader transactionReader;
+	private final RewardProperties.Bulk bulk;
+	private final TransactionStore transactionStore;
+	private final RewardPointsIndex rewardPointsIndex;
+
+	public BulkTransactionService(BulkTransactionRepository bulkTransactionRepository,
+			CustomerRewardsCache customerRewardsCache, RewardRuleEngine rewardRuleEngine,
+			PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+			RewardProperties rewardProperties, TransactionStore transactionStore,
+			RewardPointsIndex rewardPointsIndex) {
+		this.bulkTransactionRepository = bulkTransactionRepository;
+		this.customerRewardsCache = customerRewardsCache;
+		this.rewardRuleEngine = rewardRuleEngine;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionReader = objectMapper.readerFor(Transaction.class);
+		this.bulk = rewardProperties.getBulk();
+		this.transactionStore = transactionStore;
+		this.rewardPointsIndex = rewardPointsIndex;
+	}
+
+	/**
+	 * Loads every valid line of {@code body}. A CSV body holds
+	 * {@code customerId,customerName,amount,transactionDate} rows, optionally
+	 * below a header line naming those columns; an NDJSON body holds one
+	 * transaction object per line.
+	 * Chunks written before a database failure stay committed.
+	 */
+	public BulkIngestResultDto ingest(InputStream body, Format format) throws IOException {
+		long startedAt = System.nanoTime();
+		BulkIngestResultDto result = new BulkIngestResultDto();
+		List<Transaction> chunk = new ArrayList<>(bulk.getChunkSize());
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+		long lineNumber = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			lineNumber++;
+			if (line.trim().isEmpty() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+				continue;
+			}
+			try {
+				chunk.add(validate(format == Format.CSV ? parseCsv(line) : parseJson(line)));
+			} catch (IllegalArgumentException ex) {
+				reject(result, lineNumber, ex.getMessage());
+			}
+			if (chunk.size() == bulk.getChunkSize()) {
+				writeChunk(chunk);
+				result.setAcceptedRows(result.getAcceptedRows() + chunk.size());
+				chunk = new ArrayList<>(bulk.getChunkSize());
+			}
+		}
+		if (!chunk.isEmpty()) {
+			writeChunk(chunk);
+			result.setAcceptedRows(result.getAcceptedRows() + chunk.size());
+		}
+		if (result.getAcceptedRows() > 0) {
+			transactionStore.refresh();
+		}
+
+		long elapsedNanos = System.nanoTime() - startedAt;
+		result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+		result.setRowsPerSecond(result.getAcceptedRows() * 1e9 / Math.max(elapsedNanos, 1));
+		log.info("Bulk {} upload: {} rows loaded, {} rejected in {} ms ({} rows/s)", format, result.getAcceptedRows(),
+				result.getRejectedRows(), result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+		return result;
+	}
+
+	private void writeChunk(List<Transaction> chunk) {
+		int ledgerMonths = rewardRuleEngine.writeLedger(rules -> {
+			Map<CustomerMonthlyRewardId, CustomerMonthlyReward> ledgerDeltas = new LinkedHashMap<>();
+			Set<Integer> customerIds = new LinkedHashSet<>();
+			List<DailyRewardPoints> dailyPoints = new ArrayList<>(chunk.size());
+			for (Transaction row : chunk) {
+				int rewardPoints = rules.points(CustomerRewardAccumulator.toCents(row.getAmount()),
+						row.getTransactionDate());
+				String yearMonth = YearMonth.from(row.getTransactionDate()).toString();
+				CustomerMonthlyReward delta = ledgerDeltas.computeIfAbsent(
+						new CustomerMonthlyRewardId(row.getCustomerId(), yearMonth),
+						id -> CustomerMonthlyReward.builder().customerId(id.getCustomerId())
+								.yearMonth(id.getYearMonth()).customerName(row.getCustomerName()).build());
+				delta.setPoints(delta.getPoints() + rewardPoints);
+				delta.setTxnCount(delta.getTxnCount() + 1);
+				customerIds.add(row.getCustomerId());
+				dailyPoints.add(new DailyRewardPoints(row.getCustomerId(), row.getCustomerName(),
+						row.getTransactionDate(), rewardPoints));
+			}
+
+			// each repetition follows a ledger month created meanwhile, so there are at most as many as months
+			for (int attempt = 0;; attempt++) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> {
+						bulkTransactionRepository.insertTransactions(chunk);
+						bulkTransactionRepository.addToLedger(ledgerDeltas.values());
+						customerIds.forEach(customerRewardsCache::evictCustomer);
+						rewardPointsIndex.add(dailyPoints);
+					});
+					return ledgerDeltas.size();
+				} catch (DuplicateKeyException ex) {
+					if (attempt == ledgerDeltas.size()) {
+						throw ex;
+					}
+					log.debug("Rewriting a chunk whose ledger month a concurrent writer created first");
+				}
+			}
+		});
+		log.debug("Wrote {} transactions and {} ledger months", chunk.size(), ledgerMonths);
+	}
+
+	private void reject(BulkIngestResultDto result, long lineNumber, String reason) {
+		result.setRejectedRows(result.getRejectedRows() + 1);
+		if (result.getRejections().size() < bulk.getMaxReportedRejections()) {
+			result.getRejections().add(new RejectedRowDto(lineNumber, reason));
+		}
+	}
+
+	private boolean isCsvHeader(String line) {
+		List<String> fields;
+		try {
+			fields = splitCsvLine(line);
+		} catch (IllegalArgumentException ex) {
+			return false; // rejected as a row instead
+		}
+		if (fields.size() != CSV_FIELDS) {
+			return false;
+		}
+		for (int i = 0; i < CSV_FIELDS; i++) {
+			if (!CSV_HEADER.get(i).equalsIgnoreCase(fields.get(i).trim())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Transaction parseCsv(String line) {
+		List<String> fields = splitCsvLine(line);
+		if (fields.size() != CSV_FIELDS) {
+			throw new IllegalArgumentException(
+					String.format("Expected %d fields but found %d", CSV_FIELDS, fields.size()));
+		}
+		try {
+			return Transaction.builder().customerId(Integer.parseInt(fields.get(0).trim()))
+					.customerName(fields.get(1).trim()).amount(new BigDecimal(fields.get(2).trim()))
+					.transactionDate(LocalDate.parse(fields.get(3).trim())).build();
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid number: " + ex.getMessage());
+		} catch (DateTimeParseException ex) {
+			throw new IllegalArgumentException("Invalid transactionDate: " + ex.getParsedString());
+		}
+	}
+
+	private Transaction parseJson(String line) {
+		try {
+			return transactionReader.readValue(line);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+		}
+	}
+
+	private Transaction validate(Transaction row) {
+		if (row.getCustomerId() <= 0) {
+			throw new IllegalArgumentException("customerId must be positive");
+		}
+		if (row.getCustomerName() == null || row.getCustomerName().trim().isEmpty()) {
+			throw new IllegalArgumentException("customerName is required");
+		}
+		String customerName = row.getCustomerName();
+		if (customerName.codePointCount(0, customerName.length()) > MAX_CUSTOMER_NAME_LENGTH) {
+			throw new IllegalArgumentException(
+					"customerName must be at most " + MAX_CUSTOMER_NAME_LENGTH + " characters");
+		}
+		if (row.getAmount() == null || row.getAmount().signum() < 0 || row.getAmount().compareTo(MAX_AMOUNT) > 0
+				|| row.getAmount().stripTrailingZeros().scale() > 2) {
+			throw new IllegalArgumentException(
+					"amount must be between 0 and " + MAX_AMOUNT + " with at most 2 decimal places");
+		}
+		if (row.getTransactionDate() == null) {
+			throw new IllegalArgumentException("transactionDate is required");
+		}
+		return row;
+	}
+
+	/**
+	 * Splits one CSV line on commas, honouring double-quoted fields and
+	 * {@code ""} escapes within them.
+	 */
+	private static List<String> splitCsvLine(String line) {
+		List<String> fields = new ArrayList<>(CSV_FIELDS);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quoted field");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,160 @@
+package com.infosys.reward_system.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.dto.RewardView;
+import com.infosys.reward_system.dto.TransactionRewardDto;
+import com.infosys.reward_system.repository.projection.TransactionRow;
+import com.infosys.reward_system.rules.RewardRules;
+
+/**
+ * Accumulates the reward details of a single customer one transaction at a
+ * time, under one set of {@link RewardRules}, so callers can build a
+ * {@link RewardResponseDto} in a single pass over rows grouped by customer.
+ * <p>
+ * The per-row work stays on primitives: amounts are reduced to whole cents,
+ * months to a {@code year * 12 + month} index, and monthly points are summed in
+ * an {@code int[]} window over the months seen so far. Month keys are only
+ * formatted once per month, when the response is built. For a
+ * {@link RewardView#SUMMARY} no per-transaction details are created at all.
+ */
+class CustomerRewardAccumulator {
+	private static final DateTimeFormatter MONTH_KEY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+	private static final int[] NO_MONTHS = new int[0];
+	private static final int INITIAL_MONTHS = 12;
+
+	private final RewardRules rules;
+	private final int customerId;
+	private final String customerName;
+	private int totalRewardPoints;
+	private int transactionCount;
+	/** {@code null} for a summary. */
+	private final List<TransactionRewardDto> transactionRewardDtos;
+
+	/** Whether transactions were added out of id order, as the transaction store hands them. */
+	private boolean unordered;
+
+	/** Month index of {@code monthPoints[0]}. */
+	private int firstMonth;
+	private int[] monthPoints = NO_MONTHS;
+
+	CustomerRewardAccumulator(RewardRules rules, int customerId, String customerName) {
+		this(rules, customerId, customerName, RewardView.FULL, 10);
+	}
+
+	CustomerRewardAccumulator(RewardRules rules, int customerId, String customerName, RewardView view) {
+		this(rules, customerId, customerName, view, 10);
+	}
+
+	CustomerRewardAccumulator(RewardRules rules, int customerId, String customerName, RewardView view,
+			int expectedTransactions) {
+		this.rules = rules;
+		this.customerId = customerId;
+		this.customerName = customerName;
+		this.transactionRewardDtos = view == RewardView.SUMMARY ? null : new ArrayList<>(expectedTransactions);
+	}
+
+	int getCustomerId() {
+		return customerId;
+	}
+
+	int getTransactionCount() {
+		return transactionCount;
+	}
+
+	void add(TransactionRow row) {
+		add(row.getTransactionId(), row.getAmount(), row.getTransactionDate());
+	}
+
+	void add(int transactionId, BigDecimal amount, LocalDate transactionDate) {
+		int rewardPoints = rules.points(toCents(amount), transactionDate);
+		totalRewardPoints += rewardPoints;
+		transactionCount++;
+
+		if (rewardPoints > 0) {
+			addMonthPoints(transactionDate.getYear() * 12 + transactionDate.getMonthValue() - 1, rewardPoints);
+		}
+		if (transactionRewardDtos != null) {
+			transactionRewardDtos.add(TransactionRewardDto.builder().transactionId(transactionId)
+					.transactionAmount(amount).transactionDate(transactionDate).transactionRewardPoints(rewardPoints)
+					.build());
+		}
+	}
+
+	/**
+	 * Adds a transaction read from the {@link TransactionStore}, already in whole
+	 * cents and indexed months; the amount and date are only rebuilt for a full
+	 * view, whose transactions are put back in id order when it is built.
+	 */
+	void add(int transactionId, int month, int epochDay, long amountCents) {
+		int rewardPoints = rules.points(amountCents, epochDay);
+		totalRewardPoints += rewardPoints;
+		transactionCount++;
+
+		if (rewardPoints > 0) {
+			addMonthPoints(month, rewardPoints);
+		}
+		if (transactionRewardDtos != null) {
+			unordered = unordered || (!transactionRewardDtos.isEmpty()
+					&& transactionRewardDtos.get(transactionRewardDtos.size() - 1).getTransactionId() > transactionId);
+			transactionRewardDtos.add(TransactionRewardDto.builder().transactionId(transactionId)
+					.transactionAmount(BigDecimal.valueOf(amountCents, 2))
+					.transactionDate(LocalDate.ofEpochDay(epochDay)).transactionRewardPoints(rewardPoints).build());
+		}
+	}
+
+	RewardResponseDto toRewardResponseDto() {
+		if (unordered) {
+			transactionRewardDtos.sort(Comparator.comparingInt(TransactionRewardDto::getTransactionId));
+			unordered = false;
+		}
+		return RewardResponseDto.builder().customerId(customerId).customerName(customerName)
+				.totalRewardPoints(totalRewardPoints).monthlyRewards(renderMonthlyRewards())
+				.transactions(transactionRewardDtos).build();
+	}
+
+	/**
+	 * Whole cents of {@code amount}, truncated like {@link BigDecimal#intValue()}.
+	 */
+	static long toCents(BigDecimal amount) {
+		return amount.movePointRight(2).longValue();
+	}
+
+	private void addMonthPoints(int month, int points) {
+		if (monthPoints.length == 0) {
+			firstMonth = month;
+			monthPoints = new int[INITIAL_MONTHS];
+		} else if (month < firstMonth) {
+			int shift = firstMonth - month;
+			int[] grown = new int[Math.max(monthPoints.length + shift, monthPoints.length * 2)];
+			System.arraycopy(monthPoints, 0, grown, shift, monthPoints.length);
+			firstMonth = month;
+			monthPoints = grown;
+		} else if (month - firstMonth >= monthPoints.length) {
+			monthPoints = Arrays.copyOf(monthPoints, Math.max(month - firstMonth + 1, monthPoints.length * 2));
+		}
+		monthPoints[month - firstMonth] += points;
+	}
+
+	private Map<String, Integer> renderMonthlyRewards() {
+		Map<String, Integer> monthlyRewards = new LinkedHashMap<>();
+		for (int i = 0; i < monthPoints.length; i++) {
+			if (monthPoints[i] > 0) {
+				int month = firstMonth + i;
+				monthlyRewards.put(MONTH_KEY_FORMATTER.format(YearMonth.of(month / 12, month % 12 + 1)),
+						monthPoints[i]);
+			}
+		}
+		return monthlyRewards;
+	}
+}
@@ -0,0 +1,152 @@
+package com.infosys.reward_system.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+import com.infosys.reward_system.dto.RewardResponseDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Range-aware caching of the {@link RewardService#calculateCustomerRewards}
+ * results: a write for one customer drops that customer's entries, whatever
+ * their date range, and leaves every other customer cached. The cached ranges
+ * of each customer are tracked, so the eviction touches only that customer's
+ * keys. The tracked set also serves as the customer's generation: eviction
+ * replaces it, and a calculation that started before the eviction does not
+ * leave its result cached. Ranges Caffeine drops by size or age are reported
+ * through {@link #onRemoval} and untracked, so the tracking stays within the
+ * cache bounds.
+ */
+@Component
+@Slf4j
+public class CustomerRewardsCache implements RemovalListener<Object, Object> {
+	public static final String CACHE_NAME = "customerRewards";
+
+	private final CacheManager cacheManager;
+	private final ConcurrentMap<Integer, Set<CustomerRewardsCacheKey>> rangesByCustomer = new ConcurrentHashMap<>();
+
+	public CustomerRewardsCache(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * The cached rewards of the customer in the range under the rules of
+	 * {@code rulesVersion}, or those of {@code calculation}, which must use these
+	 * rules and are cached unless the customer was evicted while they were
+	 * calculated.
+	 */
+	public RewardResponseDto get(int customerId, LocalDate startDate, LocalDate endDate, String rulesVersion,
+			Supplier<RewardResponseDto> calculation) {
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		if (cache == null) {
+			return calculation.get();
+		}
+		CustomerRewardsCacheKey key = CustomerRewardsCacheKey.of(customerId, startDate, endDate, rulesVersion);
+		RewardResponseDto cached = cache.get(key, RewardResponseDto.class);
+		if (cached != null) {
+			return cached;
+		}
+
+		Set<CustomerRewardsCacheKey> ranges = rangesByCustomer.computeIfAbsent(customerId,
+				id -> ConcurrentHashMap.newKeySet());
+		RewardResponseDto rewards = calculation.get();
+		cache.put(key, rewards);
+		synchronized (ranges) { // a range is only untracked while it is not cached
+			ranges.add(key);
+		}
+		if (rangesByCustomer.get(customerId) != ranges) {
+			cache.evict(key); // evicted while calculating, so the result may predate the write
+		}
+		return rewards;
+	}
+
+	/**
+	 * Evicts the customer's entries once the current transaction commits, so a
+	 * concurrent reader cannot re-cache the pre-write state in between.
+	 */
+	public void evictCustomer(int customerId) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evictCustomerNow(customerId);
+				}
+			});
+		} else {
+			evictCustomerNow(customerId);
+		}
+	}
+
+	/**
+	 * Untracks a range Caffeine dropped by size or age, unless it was cached
+	 * again meanwhile, and the customer once no range is left. Ranges removed
+	 * by an eviction are untracked by the eviction itself.
+	 */
+	@Override
+	public void onRemoval(Object key, Object value, RemovalCause cause) {
+		if (!cause.wasEvicted() || !(key instanceof CustomerRewardsCacheKey)) {
+			return;
+		}
+		CustomerRewardsCacheKey range = (CustomerRewardsCacheKey) key;
+		Set<CustomerRewardsCacheKey> ranges = rangesByCustomer.get(range.getCustomerId());
+		if (ranges == null) {
+			return;
+		}
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		synchronized (ranges) {
+			if (cache instanceof CaffeineCache && ((CaffeineCache) cache).getNativeCache().asMap().containsKey(range)) {
+				return;
+			}
+			ranges.remove(range);
+			if (ranges.isEmpty()) {
+				rangesByCustomer.remove(range.getCustomerId(), ranges);
+			}
+		}
+	}
+
+	/** Customers with tracked ranges. */
+	int trackedCustomers() {
+		return rangesByCustomer.size();
+	}
+
+	/**
+	 * Evicts every customer's entries, for changes that affect all rewards.
+	 */
+	public void evictAll() {
+		rangesByCustomer.clear();
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		if (cache != null) {
+			cache.clear();
+		}
+		log.debug("Evicted all cached rewards");
+	}
+
+	/**
+	 * Drops the customer's tracked ranges before their entries. A calculation
+	 * caches its range before tracking it, so the range is either among those
+	 * evicted here or evicted by the calculation itself once it sees that its
+	 * set is gone.
+	 */
+	private void evictCustomerNow(int customerId) {
+		Set<CustomerRewardsCacheKey> ranges = rangesByCustomer.remove(customerId);
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		if (ranges != null && cache != null) {
+			ranges.forEach(cache::evict);
+		}
+		log.debug("Evicted cached rewards of customer {}", customerId);
+	}
+}
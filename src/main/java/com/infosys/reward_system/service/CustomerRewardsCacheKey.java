@@ -0,0 +1,26 @@
+package com.infosys.reward_system.service;
+
+import java.time.LocalDate;
+
+import lombok.Value;
+
+/**
+ * Key of the {@value CustomerRewardsCache#CACHE_NAME} cache. An open range is
+ * normalized to two {@code null} dates, as the service ignores a lone bound.
+ * The version of the rules the rewards were calculated under is part of the
+ * key, so rewards cached under replaced rules are never served.
+ */
+@Value
+public class CustomerRewardsCacheKey {
+	int customerId;
+	LocalDate startDate;
+	LocalDate endDate;
+	String rulesVersion;
+
+	public static CustomerRewardsCacheKey of(int customerId, LocalDate startDate, LocalDate endDate,
+			String rulesVersion) {
+		return (startDate == null || endDate == null)
+				? new CustomerRewardsCacheKey(customerId, null, null, rulesVersion)
+				: new CustomerRewardsCacheKey(customerId, startDate, endDate, rulesVersion);
+	}
+}
@@ -0,0 +1,150 @@
+package com.infosys.reward_system.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.RewardBatchDto;
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.exception.CustomerNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans the per-customer reward calculation out over a bounded pool and
+ * reassembles the results in the order of the given customer ids. At most
+ * {@code poolSize} customers hit the database at once, which by default is the
+ * size of the Hikari connection pool.
+ */
+@Component
+@Slf4j
+public class ParallelRewardCalculator implements DisposableBean {
+	private final boolean enabled;
+	private final Duration customerTimeout;
+	private final int poolSize;
+	private final Semaphore permits;
+	private final ExecutorService executor;
+
+	public ParallelRewardCalculator(RewardProperties rewardProperties,
+			@Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+		RewardProperties.Parallel parallel = rewardProperties.getParallel();
+		int poolSize = parallel.getPoolSize() > 0 ? parallel.getPoolSize() : connectionPoolSize;
+
+		this.enabled = parallel.isEnabled();
+		this.customerTimeout = parallel.getCustomerTimeout();
+		this.poolSize = poolSize;
+		this.permits = new Semaphore(poolSize);
+
+		ExecutorService virtualThreadExecutor = parallel.isVirtualThreads() ? newVirtualThreadExecutor() : null;
+		if (virtualThreadExecutor != null) {
+			this.executor = virtualThreadExecutor;
+		} else {
+			ThreadPoolTaskExecutor threadPool = new ThreadPoolTaskExecutor();
+			threadPool.setCorePoolSize(poolSize);
+			threadPool.setMaxPoolSize(poolSize);
+			threadPool.setQueueCapacity(parallel.getQueueCapacity());
+			threadPool.setThreadNamePrefix("reward-");
+			threadPool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+			threadPool.initialize();
+			this.executor = threadPool.getThreadPoolExecutor();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Runs {@code calculation} for every customer concurrently. A customer that
+	 * fails, or is still running when the batch deadline passes, is listed in
+	 * {@code failedCustomerIds} instead of failing the whole batch. The deadline
+	 * allows {@code customerTimeout} for every round of {@code poolSize}
+	 * customers, so the wait is bounded by the batch rather than growing with one
+	 * timeout per customer.
+	 */
+	public RewardBatchDto calculate(List<Integer> customerIds, IntFunction<RewardResponseDto> calculation) {
+		List<Future<RewardResponseDto>> futures = new ArrayList<>(customerIds.size());
+		for (int customerId : customerIds) {
+			futures.add(executor.submit(() -> calculateWithPermit(customerId, calculation)));
+		}
+
+		long rounds = (customerIds.size() + poolSize - 1) / poolSize;
+		long deadline = System.nanoTime() + customerTimeout.toNanos() * Math.max(rounds, 1);
+		List<RewardResponseDto> results = new ArrayList<>(customerIds.size());
+		List<Integer> notFound = new ArrayList<>();
+		Map<Integer, String> failed = new LinkedHashMap<>();
+		for (int i = 0; i < futures.size(); i++) {
+			int customerId = customerIds.get(i);
+			Future<RewardResponseDto> future = futures.get(i);
+			try {
+				results.add(future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+			} catch (TimeoutException e) {
+				future.cancel(true);
+				failed.put(customerId, "timed out after " + customerTimeout + " per " + poolSize + " customers");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof CustomerNotFoundException) {
+					notFound.add(customerId);
+				} else {
+					failed.put(customerId, String.valueOf(e.getCause()));
+				}
+			} catch (InterruptedException e) {
+				futures.subList(i, futures.size()).forEach(pending -> pending.cancel(true));
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while calculating customer rewards", e);
+			}
+		}
+
+		if (!notFound.isEmpty()) {
+			log.info("No transactions in range for {} customers", notFound.size());
+			log.debug("Customers without transactions in range: {}", notFound);
+		}
+		if (!failed.isEmpty()) {
+			log.warn("Reward calculation failed for {} of {} customers, first: {}", failed.size(), customerIds.size(),
+					failed.entrySet().iterator().next());
+			log.debug("Failed customers: {}", failed);
+		}
+		return new RewardBatchDto(results, notFound, new ArrayList<>(failed.keySet()));
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private RewardResponseDto calculateWithPermit(int customerId, IntFunction<RewardResponseDto> calculation)
+			throws InterruptedException {
+		permits.acquire();
+		try {
+			return calculation.apply(customerId);
+		} finally {
+			permits.release();
+		}
+	}
+
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			log.warn("Virtual threads are not available on Java {}, using a platform thread pool instead",
+					System.getProperty("java.version"));
+			return null;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.infosys.reward_system.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.infosys.reward_system.repository.projection.CustomerRewardTotal;
+
+/**
+ * The {@code size} customers with the most points among those offered, kept in
+ * a min-heap headed by the weakest leader, so memory stays bounded by
+ * {@code size} however many customers are offered. Ties go to the lower
+ * customer id.
+ */
+final class RewardLeaderboard {
+	private static final Comparator<CustomerRewardTotal> RANKING = Comparator
+			.comparingLong(CustomerRewardTotal::getPoints).reversed()
+			.thenComparingInt(CustomerRewardTotal::getCustomerId);
+
+	private final int size;
+	private final PriorityQueue<CustomerRewardTotal> leaders;
+	private long offered;
+
+	RewardLeaderboard(int size) {
+		this.size = size;
+		this.leaders = new PriorityQueue<>(size, RANKING.reversed());
+	}
+
+	void offer(CustomerRewardTotal total) {
+		offered++;
+		if (leaders.size() < size) {
+			leaders.add(total);
+		} else if (RANKING.compare(total, leaders.peek()) < 0) {
+			leaders.poll();
+			leaders.add(total);
+		}
+	}
+
+	long getOffered() {
+		return offered;
+	}
+
+	/** The leaders, most points first. */
+	List<CustomerRewardTotal> getLeaders() {
+		List<CustomerRewardTotal> ranked = new ArrayList<>(leaders);
+		ranked.sort(RANKING);
+		return ranked;
+	}
+}
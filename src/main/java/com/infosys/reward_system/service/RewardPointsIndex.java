@@ -0,0 +1,242 @@
+package com.infosys.reward_system.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.repository.RewardAggregationRepository;
+import com.infosys.reward_system.repository.projection.CustomerRewardTotal;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+import com.infosys.reward_system.repository.projection.MonthlyRewardPoints;
+import com.infosys.reward_system.rules.RewardRules;
+
+/**
+ * Per-customer prefix sums of daily reward points, so the points of any date
+ * range are the difference of two entries found by binary search, and a
+ * range's monthly breakdown costs two lookups per month with transactions.
+ * Enabled with {@code reward.points-index.enabled}.
+ * <p>
+ * The index is kept like the {@code customer_monthly_rewards} ledger: built
+ * from the transactions by {@link RewardRuleEngine} whenever rules come into
+ * force, and added to by every ledger write once it commits. Each customer's
+ * days are immutable arrays replaced as a whole, so readers never lock.
+ */
+@Component
+public class RewardPointsIndex {
+	private final RewardAggregationRepository rewardAggregationRepository;
+	private final boolean enabled;
+
+	private volatile ConcurrentSkipListMap<Integer, CustomerDays> customers = new ConcurrentSkipListMap<>();
+
+	public RewardPointsIndex(RewardAggregationRepository rewardAggregationRepository,
+			RewardProperties rewardProperties) {
+		this.rewardAggregationRepository = rewardAggregationRepository;
+		this.enabled = rewardProperties.getPointsIndex().isEnabled();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Replaces the index with one built from the transactions under
+	 * {@code rules}; ledger writes must be held off meanwhile.
+	 *
+	 * @return the number of customers indexed
+	 */
+	public int rebuild(RewardRules rules) {
+		if (!enabled) {
+			return 0;
+		}
+		ConcurrentSkipListMap<Integer, CustomerDays> rebuilt = new ConcurrentSkipListMap<>();
+		List<DailyRewardPoints> customerDays = new ArrayList<>();
+		rewardAggregationRepository.streamDailyRewardPoints(rules, day -> { // rows arrive grouped by customer
+			if (!customerDays.isEmpty() && customerDays.get(0).getCustomerId() != day.getCustomerId()) {
+				rebuilt.put(customerDays.get(0).getCustomerId(), CustomerDays.merge(null, customerDays));
+				customerDays.clear();
+			}
+			customerDays.add(day);
+		});
+		if (!customerDays.isEmpty()) {
+			rebuilt.put(customerDays.get(0).getCustomerId(), CustomerDays.merge(null, customerDays));
+		}
+		customers = rebuilt;
+		return rebuilt.size();
+	}
+
+	/**
+	 * Adds the points of newly written transactions once the current transaction
+	 * commits, so readers never see points that could still roll back.
+	 */
+	public void add(Collection<DailyRewardPoints> points) {
+		if (!enabled || points.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					addNow(points);
+				}
+			});
+		} else {
+			addNow(points);
+		}
+	}
+
+	/**
+	 * Points per customer and month of the days between the dates, in customer
+	 * and month order, like
+	 * {@link RewardAggregationRepository#findMonthlyRewardPointsByTransactionDateBetween}.
+	 */
+	public List<MonthlyRewardPoints> findMonthlyRewardPoints(LocalDate startDate, LocalDate endDate) {
+		List<MonthlyRewardPoints> monthlyPoints = new ArrayList<>();
+		for (Map.Entry<Integer, CustomerDays> customer : customers.entrySet()) {
+			customer.getValue().addMonthlyPoints(customer.getKey(), startDate, endDate, monthlyPoints);
+		}
+		return monthlyPoints;
+	}
+
+	/**
+	 * One customer's points per month of the days between the dates, in month
+	 * order.
+	 */
+	public List<MonthlyRewardPoints> findMonthlyRewardPoints(int customerId, LocalDate startDate,
+			LocalDate endDate) {
+		List<MonthlyRewardPoints> monthlyPoints = new ArrayList<>();
+		CustomerDays days = customers.get(customerId);
+		if (days != null) {
+			days.addMonthlyPoints(customerId, startDate, endDate, monthlyPoints);
+		}
+		return monthlyPoints;
+	}
+
+	/**
+	 * Hands the points of every customer with transactions between the dates to
+	 * {@code sink}, one total per customer, in customer id order.
+	 */
+	public void forEachCustomerTotal(LocalDate startDate, LocalDate endDate, Consumer<CustomerRewardTotal> sink) {
+		for (Map.Entry<Integer, CustomerDays> customer : customers.entrySet()) {
+			CustomerDays days = customer.getValue();
+			int from = days.lowerBound(CustomerDays.epochDay(startDate));
+			int to = days.upperBound(CustomerDays.epochDay(endDate));
+			if (from < to) {
+				sink.accept(new CustomerRewardTotal(customer.getKey(), days.customerName,
+						days.prefixPoints[to] - days.prefixPoints[from]));
+			}
+		}
+	}
+
+	private void addNow(Collection<DailyRewardPoints> points) {
+		Map<Integer, List<DailyRewardPoints>> byCustomer = new LinkedHashMap<>();
+		for (DailyRewardPoints day : points) {
+			byCustomer.computeIfAbsent(day.getCustomerId(), id -> new ArrayList<>()).add(day);
+		}
+		byCustomer.forEach((customerId, days) -> customers.compute(customerId,
+				(id, existing) -> CustomerDays.merge(existing, days)));
+	}
+
+	/**
+	 * The days on which one customer has transactions, ascending, with
+	 * {@code prefixPoints[i]} the points of {@code days[0..i)}.
+	 */
+	static final class CustomerDays {
+		final String customerName;
+		final int[] days;
+		final long[] prefixPoints;
+
+		private CustomerDays(String customerName, int[] days, long[] prefixPoints) {
+			this.customerName = customerName;
+			this.days = days;
+			this.prefixPoints = prefixPoints;
+		}
+
+		/**
+		 * {@code existing}, which may be {@code null}, with the points of
+		 * {@code added} merged in by day.
+		 */
+		static CustomerDays merge(CustomerDays existing, List<DailyRewardPoints> added) {
+			int existingDays = existing == null ? 0 : existing.days.length;
+			String customerName = existing == null ? null : existing.customerName;
+			List<DailyRewardPoints> sorted = new ArrayList<>(added);
+			sorted.sort(Comparator.comparing(DailyRewardPoints::getTransactionDate));
+
+			int[] days = new int[existingDays + sorted.size()];
+			long[] points = new long[days.length];
+			int size = 0;
+			int i = 0;
+			int next = 0;
+			while (i < existingDays || next < sorted.size()) {
+				int addedDay = next < sorted.size() ? epochDay(sorted.get(next).getTransactionDate())
+						: Integer.MAX_VALUE;
+				int day;
+				long dayPoints;
+				if (i < existingDays && existing.days[i] <= addedDay) {
+					day = existing.days[i];
+					dayPoints = existing.prefixPoints[i + 1] - existing.prefixPoints[i];
+					i++;
+				} else {
+					DailyRewardPoints addedPoints = sorted.get(next++);
+					day = addedDay;
+					dayPoints = addedPoints.getPoints();
+					customerName = max(customerName, addedPoints.getCustomerName());
+				}
+				if (size == 0 || days[size - 1] != day) {
+					days[size++] = day;
+				}
+				points[size - 1] += dayPoints;
+			}
+
+			long[] prefixPoints = new long[size + 1];
+			for (int day = 0; day < size; day++) {
+				prefixPoints[day + 1] = prefixPoints[day] + points[day];
+			}
+			return new CustomerDays(customerName, Arrays.copyOf(days, size), prefixPoints);
+		}
+
+		void addMonthlyPoints(int customerId, LocalDate startDate, LocalDate endDate,
+				List<MonthlyRewardPoints> monthlyPoints) {
+			int to = upperBound(epochDay(endDate));
+			for (int from = lowerBound(epochDay(startDate)); from < to;) {
+				LocalDate day = LocalDate.ofEpochDay(days[from]);
+				int monthTo = Math.min(upperBound(epochDay(day.withDayOfMonth(day.lengthOfMonth()))), to);
+				monthlyPoints.add(new MonthlyRewardPoints(customerId, customerName, day.getYear(),
+						day.getMonthValue(), prefixPoints[monthTo] - prefixPoints[from]));
+				from = monthTo;
+			}
+		}
+
+		/** Index of the first day on or after {@code epochDay}. */
+		int lowerBound(int epochDay) {
+			int index = Arrays.binarySearch(days, epochDay);
+			return index >= 0 ? index : -index - 1;
+		}
+
+		/** Index of the first day after {@code epochDay}. */
+		int upperBound(int epochDay) {
+			int index = Arrays.binarySearch(days, epochDay);
+			return index >= 0 ? index + 1 : -index - 1;
+		}
+
+		static int epochDay(LocalDate date) {
+			return Math.toIntExact(date.toEpochDay());
+		}
+
+		/** The greater name, as the database's {@code MAX(customer_name)} picks it. */
+		private static String max(String first, String second) {
+			return first == null || (second != null && second.compareTo(first) > 0) ? second : first;
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package com.infosys.reward_system.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.RewardReportJobDto;
+import com.infosys.reward_system.dto.RewardView;
+import com.infosys.reward_system.exception.ReportJobNotFoundException;
+import com.infosys.reward_system.exception.ReportJobNotReadyException;
+import com.infosys.reward_system.exception.ReportJobRejectedException;
+import com.infosys.reward_system.model.RewardReportJob;
+import com.infosys.reward_system.model.RewardReportJobStatus;
+import com.infosys.reward_system.repository.RewardReportJobRepository;
+import com.infosys.reward_system.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs all-customer reward reports in the background on a bounded pool of its
+ * own. A report for the same date range as one still queued or running is not
+ * started again; the caller gets the existing job instead. The rewards are
+ * streamed to a JSON file one customer at a time, which is also how progress is
+ * counted, and finished jobs are purged after {@code reward.jobs.retention}.
+ * Jobs a previous run left unfinished are failed at startup, and result files
+ * no job refers to are deleted.
+ */
+@Service
+@Slf4j
+public class RewardReportJobService implements InitializingBean, DisposableBean {
+	private static final int MAX_ERROR_LENGTH = 1000;
+	/** Names of the result files, complete or partial, of a job id. */
+	private static final Pattern RESULT_FILE = Pattern.compile("([0-9a-f-]{36})\\.json(\\.part)?");
+
+	private final RewardService rewardService;
+	private final TransactionRepository transactionRepository;
+	private final RewardReportJobRepository rewardReportJobRepository;
+	private final ObjectMapper objectMapper;
+	private final RewardProperties.Jobs jobs;
+	private final Path resultDir;
+	private final ThreadPoolTaskExecutor executor;
+
+	/** Job id of the queued or running report per date range. */
+	private final Map<String, String> activeJobIds = new HashMap<>();
+	/** Customers written so far per running job. */
+	private final Map<String, AtomicInteger> progress = new ConcurrentHashMap<>();
+
+	public RewardReportJobService(RewardService rewardService, TransactionRepository transactionRepository,
+			RewardReportJobRepository rewardReportJobRepository, ObjectMapper objectMapper,
+			RewardProperties rewardProperties) {
+		this.rewardService = rewardService;
+		this.transactionRepository = transactionRepository;
+		this.rewardReportJobRepository = rewardReportJobRepository;
+		this.objectMapper = objectMapper;
+		this.jobs = rewardProperties.getJobs();
+		this.resultDir = Paths.get(jobs.getResultDir());
+
+		this.executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(jobs.getPoolSize());
+		executor.setMaxPoolSize(jobs.getPoolSize());
+		executor.setQueueCapacity(jobs.getQueueCapacity());
+		executor.setThreadNamePrefix("reward-report-");
+		executor.initialize();
+	}
+
+	/**
+	 * Queues a report of all customers' rewards in the range, or returns the job
+	 * already queued or running for the same range.
+	 */
+	public RewardReportJobDto submit(LocalDate startDate, LocalDate endDate) {
+		if (startDate == null || endDate == null) { // a lone bound is ignored, as everywhere else
+			startDate = null;
+			endDate = null;
+		}
+		String rangeKey = startDate + ".." + endDate;
+
+		synchronized (activeJobIds) {
+			String activeJobId = activeJobIds.get(rangeKey);
+			if (activeJobId != null) {
+				log.info("Report for {} is already in progress as job {}", rangeKey, activeJobId);
+				return getJob(activeJobId);
+			}
+
+			RewardReportJob job = rewardReportJobRepository.save(RewardReportJob.builder()
+					.jobId(UUID.randomUUID().toString()).startDate(startDate).endDate(endDate)
+					.status(RewardReportJobStatus.QUEUED).createdAt(LocalDateTime.now()).build());
+			try {
+				executor.execute(() -> run(job.getJobId(), rangeKey));
+			} catch (TaskRejectedException e) {
+				rewardReportJobRepository.delete(job);
+				throw new ReportJobRejectedException(jobs.getQueueCapacity());
+			}
+			activeJobIds.put(rangeKey, job.getJobId());
+			log.info("Queued report job {} for {}", job.getJobId(), rangeKey);
+			return toDto(job);
+		}
+	}
+
+	public RewardReportJobDto getJob(String jobId) {
+		return toDto(findJob(jobId));
+	}
+
+	/**
+	 * The JSON file holding the rewards of a succeeded job.
+	 */
+	public Path getResult(String jobId) {
+		RewardReportJob job = findJob(jobId);
+		if (job.getStatus() != RewardReportJobStatus.SUCCEEDED) {
+			throw new ReportJobNotReadyException(jobId, job.getStatus());
+		}
+		return resultFile(jobId);
+	}
+
+	/**
+	 * Fails the jobs a previous run left queued or running, which nothing would
+	 * ever finish or purge, and deletes the result files of jobs that are gone,
+	 * such as those dropped with an in-memory database, and partial results.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		for (RewardReportJob job : rewardReportJobRepository
+				.findByStatusIn(Arrays.asList(RewardReportJobStatus.QUEUED, RewardReportJobStatus.RUNNING))) {
+			log.warn("Report job {} was left {} by a previous run, marking it failed", job.getJobId(),
+					job.getStatus());
+			job.setStatus(RewardReportJobStatus.FAILED);
+			job.setError("Interrupted by a restart");
+			job.setFinishedAt(LocalDateTime.now());
+			rewardReportJobRepository.save(job);
+		}
+
+		if (!Files.isDirectory(resultDir)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(resultDir)) {
+			for (Path file : files) {
+				Matcher name = RESULT_FILE.matcher(file.getFileName().toString());
+				if (name.matches() && (name.group(2) != null || !rewardReportJobRepository.existsById(name.group(1)))) {
+					Files.deleteIfExists(file);
+					log.info("Deleted orphaned report result {}", file);
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Could not delete orphaned report results in {}: {}", resultDir, e.toString());
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${reward.jobs.cleanup-interval:PT10M}")
+	public void purgeExpiredJobs() {
+		for (RewardReportJob job : rewardReportJobRepository
+				.findByFinishedAtBefore(LocalDateTime.now().minus(jobs.getRetention()))) {
+			try {
+				Files.deleteIfExists(resultFile(job.getJobId()));
+				rewardReportJobRepository.delete(job);
+				log.info("Purged report job {} finished at {}", job.getJobId(), job.getFinishedAt());
+			} catch (IOException e) {
+				log.warn("Could not delete the result of report job {}: {}", job.getJobId(), e.toString());
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private void run(String jobId, String rangeKey) {
+		RewardReportJob job = findJob(jobId);
+		AtomicInteger customersDone = new AtomicInteger();
+		progress.put(jobId, customersDone);
+		RewardReportJobStatus outcome = RewardReportJobStatus.FAILED;
+		try {
+			job.setStatus(RewardReportJobStatus.RUNNING);
+			job.setCustomersTotal(Math.toIntExact(job.getStartDate() == null
+					? transactionRepository.countDistinctCustomerIds()
+					: transactionRepository.countDistinctCustomerIdsWithTransactionDateBetween(job.getStartDate(),
+							job.getEndDate())));
+			job = rewardReportJobRepository.save(job);
+
+			writeResult(job, customersDone);
+			outcome = RewardReportJobStatus.SUCCEEDED;
+		} catch (Exception e) {
+			log.error("Report job {} failed", jobId, e);
+			String error = String.valueOf(e);
+			job.setError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+		} finally {
+			// released before the outcome is visible, so a client seeing it can resubmit the range right away
+			synchronized (activeJobIds) {
+				activeJobIds.remove(rangeKey);
+			}
+			job.setStatus(outcome);
+			job.setCustomersDone(customersDone.get());
+			job.setFinishedAt(LocalDateTime.now());
+			rewardReportJobRepository.save(job);
+			progress.remove(jobId);
+		}
+		log.info("Report job {} {} with {} customers", jobId, job.getStatus(), job.getCustomersDone());
+	}
+
+	/**
+	 * Streams the rewards into a temporary file that is only moved into place
+	 * once complete, so a result file is never partial.
+	 */
+	private void writeResult(RewardReportJob job, AtomicInteger customersDone) throws IOException {
+		Files.createDirectories(resultDir);
+		Path partial = resultDir.resolve(job.getJobId() + ".json.part");
+		try (OutputStream out = Files.newOutputStream(partial);
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.writeStartArray();
+			rewardService.streamAllCustomerRewards(job.getStartDate(), job.getEndDate(), RewardView.FULL, reward -> {
+				try {
+					objectMapper.writeValue(generator, reward);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				customersDone.incrementAndGet();
+			});
+			generator.writeEndArray();
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(partial);
+			throw e;
+		}
+		Files.move(partial, resultFile(job.getJobId()), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private RewardReportJob findJob(String jobId) {
+		return rewardReportJobRepository.findById(jobId).orElseThrow(() -> new ReportJobNotFoundException(jobId));
+	}
+
+	private Path resultFile(String jobId) {
+		return resultDir.resolve(jobId + ".json");
+	}
+
+	private RewardReportJobDto toDto(RewardReportJob job) {
+		AtomicInteger running = progress.get(job.getJobId());
+		return RewardReportJobDto.builder().jobId(job.getJobId()).status(job.getStatus())
+				.startDate(job.getStartDate()).endDate(job.getEndDate())
+				.customersDone(running != null ? running.get() : job.getCustomersDone())
+				.customersTotal(job.getCustomersTotal()).createdAt(job.getCreatedAt()).finishedAt(job.getFinishedAt())
+				.error(job.getError())
+				.resultUrl(job.getStatus() == RewardReportJobStatus.SUCCEEDED
+						? "/api/rewards/jobs/" + job.getJobId() + "/result"
+						: null)
+				.build();
+	}
+}
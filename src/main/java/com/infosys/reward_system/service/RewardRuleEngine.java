@@ -0,0 +1,176 @@
+package com.infosys.reward_system.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infosys.reward_system.repository.RewardAggregationRepository;
+import com.infosys.reward_system.repository.RewardPromotionRepository;
+import com.infosys.reward_system.repository.RewardTierRepository;
+import com.infosys.reward_system.rules.RewardRules;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the reward rules in force, compiled from the {@code reward_tiers} and
+ * {@code reward_promotions} tables at startup and re-read every
+ * {@code reward.rules.reload-interval}.
+ * <p>
+ * Readers take the current {@link RewardRules} without locking; changed rules
+ * are compiled aside and swapped in with a single volatile write. Because the
+ * {@code customer_monthly_rewards} ledger holds points computed under the
+ * rules, a change rebuilds it first, together with the
+ * {@link RewardPointsIndex}, while ledger writers, which run through
+ * {@link #writeLedger}, wait; reward reads carry on meanwhile. Every ledger
+ * write and rules change advances the {@linkplain #getLedgerVersion() ledger
+ * version}.
+ */
+@Component
+@Slf4j
+public class RewardRuleEngine implements InitializingBean {
+
+	private final RewardTierRepository rewardTierRepository;
+	private final RewardPromotionRepository rewardPromotionRepository;
+	private final RewardAggregationRepository rewardAggregationRepository;
+	private final CustomerRewardsCache customerRewardsCache;
+	private final RewardPointsIndex rewardPointsIndex;
+	private final TransactionTemplate transactionTemplate;
+	private final ReadWriteLock ledgerLock = new ReentrantReadWriteLock();
+	/** Tells the ledger versions of this run apart from those of earlier runs. */
+	private final String runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+	private final AtomicLong ledgerGeneration = new AtomicLong();
+
+	private volatile RewardRules rules;
+
+	@Autowired
+	public RewardRuleEngine(RewardTierRepository rewardTierRepository,
+			RewardPromotionRepository rewardPromotionRepository,
+			RewardAggregationRepository rewardAggregationRepository, CustomerRewardsCache customerRewardsCache,
+			RewardPointsIndex rewardPointsIndex, PlatformTransactionManager transactionManager) {
+		this.rewardTierRepository = rewardTierRepository;
+		this.rewardPromotionRepository = rewardPromotionRepository;
+		this.rewardAggregationRepository = rewardAggregationRepository;
+		this.customerRewardsCache = customerRewardsCache;
+		this.rewardPointsIndex = rewardPointsIndex;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Fixed rules that are never reloaded, for calculations outside the
+	 * application context.
+	 */
+	RewardRuleEngine(RewardRules rules) {
+		this(null, null, null, null, null, null);
+		this.rules = rules;
+	}
+
+	public RewardRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Changes once a {@link #writeLedger} call or a rules change has committed,
+	 * and on every restart; read without touching the database.
+	 */
+	public String getLedgerVersion() {
+		return runId + "." + ledgerGeneration.get();
+	}
+
+	/**
+	 * Runs {@code ledgerWrite}, which must open and commit its own database
+	 * transaction, with the rules in force; no rules change can land between
+	 * the points being computed and the ledger write committing.
+	 */
+	public <T> T writeLedger(Function<RewardRules, T> ledgerWrite) {
+		ledgerLock.readLock().lock();
+		try {
+			return ledgerWrite.apply(rules);
+		} finally {
+			ledgerGeneration.incrementAndGet();
+			ledgerLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs {@code read} while no {@link #writeLedger} call is in progress, so
+	 * every transaction written through this engine has either committed or not
+	 * started; transaction ids are then gap-free up to the highest one read.
+	 */
+	public <T> T withoutLedgerWrites(Supplier<T> read) {
+		ledgerLock.writeLock().lock();
+		try {
+			return read.get();
+		} finally {
+			ledgerLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Loads the rules and makes them current, rebuilding the ledger only when it
+	 * was last built under other rules; the points index, held in memory, is
+	 * always built.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		RewardRules loaded = loadRules();
+		apply(loaded, !loaded.getVersion().equals(rewardAggregationRepository.findLedgerRulesVersion()));
+	}
+
+	/**
+	 * Re-reads the rule tables and, when they changed, rebuilds the ledger,
+	 * swaps the rules in and drops the cached rewards. Rules that fail to
+	 * compile are logged and the current ones kept.
+	 *
+	 * @return whether the rules changed
+	 */
+	@Scheduled(initialDelayString = "${reward.rules.reload-interval:PT1M}",
+			fixedDelayString = "${reward.rules.reload-interval:PT1M}")
+	public boolean reload() {
+		RewardRules loaded;
+		try {
+			loaded = loadRules();
+		} catch (IllegalArgumentException ex) {
+			log.error("Keeping reward rules {}, the changed ones are invalid: {}", rules.getVersion(),
+					ex.getMessage());
+			return false;
+		}
+		if (loaded.equals(rules)) {
+			return false;
+		}
+		apply(loaded, true);
+		customerRewardsCache.evictAll();
+		return true;
+	}
+
+	private RewardRules loadRules() {
+		return RewardRules.compile(rewardTierRepository.findAllByOrderByThresholdAmountAsc(),
+				rewardPromotionRepository.findAllByOrderByStartDateAsc());
+	}
+
+	private void apply(RewardRules loaded, boolean rebuildLedger) {
+		ledgerLock.writeLock().lock();
+		try {
+			long startedAt = System.nanoTime();
+			Integer ledgerRows = rebuildLedger
+					? transactionTemplate.execute(status -> rewardAggregationRepository.rebuildLedger(loaded))
+					: null;
+			int indexedCustomers = rewardPointsIndex.rebuild(loaded);
+			rules = loaded;
+			ledgerGeneration.incrementAndGet();
+			log.info("Reward rules {} in force, ledger {} and points index with {} customers built in {} ms",
+					loaded.getVersion(), rebuildLedger ? "rebuilt with " + ledgerRows + " rows" : "kept",
+					indexedCustomers, (System.nanoTime() - startedAt) / 1_000_000);
+		} finally {
+			ledgerLock.writeLock().unlock();
+		}
+	}
+}
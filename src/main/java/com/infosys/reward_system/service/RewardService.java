@@ -1,108 +1,583 @@
 package com.infosys.reward_system.service;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.infosys.reward_system.dto.RewardBatchDto;
+import com.infosys.reward_system.dto.RewardLeaderDto;
+import com.infosys.reward_system.dto.RewardPageDto;
 import com.infosys.reward_system.dto.RewardResponseDto;
-import com.infosys.reward_system.dto.TransactionRewardDto;
+import com.infosys.reward_system.dto.RewardView;
 import com.infosys.reward_system.exception.CustomerNotFoundException;
-import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.metrics.RewardMetrics;
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.repository.CustomerMonthlyRewardRepository;
+import com.infosys.reward_system.repository.RewardAggregationRepository;
 import com.infosys.reward_system.repository.TransactionRepository;
+import com.infosys.reward_system.repository.projection.CustomerRewardTotal;
+import com.infosys.reward_system.repository.projection.MonthlyRewardPoints;
+import com.infosys.reward_system.repository.projection.TransactionRow;
+import com.infosys.reward_system.repository.projection.TransactionsVersion;
+import com.infosys.reward_system.rules.RewardRules;
+import com.infosys.reward_system.store.TransactionSnapshot;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class RewardService {
+	/** Customer ids per {@code IN} query of a batch lookup. */
+	static final int BATCH_CHUNK_SIZE = 200;
 
 	private TransactionRepository transactionRepository;
+	private CustomerMonthlyRewardRepository customerMonthlyRewardRepository;
+	private RewardAggregationRepository rewardAggregationRepository;
+	private RewardRuleEngine rewardRuleEngine;
+	private ParallelRewardCalculator parallelRewardCalculator;
+	private RewardMetrics rewardMetrics;
+	private TransactionStore transactionStore;
+	private RewardPointsIndex rewardPointsIndex;
+	private CustomerRewardsCache customerRewardsCache;
+	/**
+	 * Read-only transaction around the multi-query database reads; a transaction
+	 * store read needs none and so never takes a connection.
+	 */
+	private TransactionTemplate readOnlyTransaction;
 
-	public RewardService(TransactionRepository transactionRepository) {
+	public RewardService(TransactionRepository transactionRepository,
+			CustomerMonthlyRewardRepository customerMonthlyRewardRepository,
+			RewardAggregationRepository rewardAggregationRepository, RewardRuleEngine rewardRuleEngine,
+			ParallelRewardCalculator parallelRewardCalculator, RewardMetrics rewardMetrics,
+			TransactionStore transactionStore, RewardPointsIndex rewardPointsIndex,
+			CustomerRewardsCache customerRewardsCache, PlatformTransactionManager transactionManager) {
 		this.transactionRepository = transactionRepository;
+		this.customerMonthlyRewardRepository = customerMonthlyRewardRepository;
+		this.rewardAggregationRepository = rewardAggregationRepository;
+		this.rewardRuleEngine = rewardRuleEngine;
+		this.parallelRewardCalculator = parallelRewardCalculator;
+		this.rewardMetrics = rewardMetrics;
+		this.transactionStore = transactionStore;
+		this.rewardPointsIndex = rewardPointsIndex;
+		this.customerRewardsCache = customerRewardsCache;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
 	}
 
-	public List<RewardResponseDto> calculateAllCustomerRewards(LocalDate startDate, LocalDate endDate) {
-		log.info("Calculating rewards for all customers...");
+	/**
+	 * Builds the rewards of every customer from a single query over the
+	 * (optionally date-filtered) transactions, ordered by customer, or, with
+	 * {@code reward.parallel.enabled}, from concurrent per-customer queries, where
+	 * the customers whose calculation failed are listed in
+	 * {@code failedCustomerIds}. With {@code reward.store.enabled} the
+	 * transaction store is scanned instead. Customers without transactions in the
+	 * range are left out of the result.
+	 */
+	public RewardBatchDto calculateAllCustomerRewards(LocalDate startDate, LocalDate endDate) {
+		log.debug("Calculating rewards for all customers...");
 
-		List<Integer> distinctCustomerIds = transactionRepository.findDistinctCustomerIds();
-		List<RewardResponseDto> allCustomerRewardsList = distinctCustomerIds.stream()
-				.map(id -> calculateCustomerRewards(id, startDate, endDate)).collect(Collectors.toList());
+		if (transactionStore.isEnabled()) {
+			List<RewardResponseDto> rewards = new ArrayList<>();
+			accumulateFromStore(startDate, endDate, Integer.MIN_VALUE, Integer.MAX_VALUE, RewardView.FULL, "all",
+					rewards::add);
+			return new RewardBatchDto(rewards, Collections.emptyList(), Collections.emptyList());
+		}
+		if (parallelRewardCalculator.isEnabled()) {
+			RewardRules rules = rewardRuleEngine.getRules(); // one set of rules for the whole pass
+			RewardBatchDto calculated = parallelRewardCalculator.calculate(
+					transactionRepository.findDistinctCustomerIds(),
+					customerId -> calculateUncachedCustomerRewards(rules, customerId, startDate, endDate));
+			return new RewardBatchDto(calculated.getRewards(), Collections.emptyList(),
+					calculated.getFailedCustomerIds());
+		}
+
+		List<TransactionRow> transactions = getAllTransactions(startDate, endDate);
+		rewardMetrics.recordRows("all", transactions.size());
+
+		Timer.Sample calculation = rewardMetrics.startCalculation();
+		List<RewardResponseDto> allCustomerRewardsList = new ArrayList<>();
+		accumulateByCustomer(transactions.iterator(), RewardView.FULL, allCustomerRewardsList::add);
+		rewardMetrics.stopCalculation(calculation, "all");
+
+		log.debug("Rewards calculated for {} customers from {} transactions", allCustomerRewardsList.size(),
+				transactions.size());
+		return new RewardBatchDto(allCustomerRewardsList, Collections.emptyList(), Collections.emptyList());
+
+	}
+
+	/**
+	 * Keyset-paginated counterpart of {@link #calculateAllCustomerRewards}: the
+	 * rewards of at most {@code limit} customers with an id above
+	 * {@code afterCustomerId}. Both queries are index range scans starting at the
+	 * cursor, so every page costs the same however deep it is. The transaction
+	 * store, when enabled, starts its scan at the cursor the same way.
+	 */
+	public RewardPageDto calculateCustomerRewardsPage(int afterCustomerId, int limit, LocalDate startDate,
+			LocalDate endDate, RewardView view) {
+		log.debug("Calculating rewards for up to {} customers after customer {}", limit, afterCustomerId);
+
+		if (transactionStore.isEnabled()) {
+			List<RewardResponseDto> rewards = new ArrayList<>(limit);
+			boolean hasNextPage = accumulateFromStore(startDate, endDate, afterCustomerId, limit, view, "page",
+					rewards::add);
+			return new RewardPageDto(rewards,
+					hasNextPage ? rewards.get(rewards.size() - 1).getCustomerId() : null);
+		}
+		return readOnlyTransaction
+				.execute(status -> calculateCustomerRewardsPageFromDatabase(afterCustomerId, limit, startDate,
+						endDate, view));
+	}
 
-		return allCustomerRewardsList;
+	private RewardPageDto calculateCustomerRewardsPageFromDatabase(int afterCustomerId, int limit,
+			LocalDate startDate, LocalDate endDate, RewardView view) {
+		boolean openRange = startDate == null || endDate == null;
+		PageRequest idPage = PageRequest.of(0, limit + 1); // one extra id tells whether another page follows
+		List<Integer> customerIds = openRange ? transactionRepository.findCustomerIdsAfter(afterCustomerId, idPage)
+				: transactionRepository.findCustomerIdsAfterWithTransactionDateBetween(afterCustomerId, startDate,
+						endDate, idPage);
+		if (customerIds.isEmpty()) {
+			return new RewardPageDto(Collections.emptyList(), null);
+		}
+
+		boolean hasNextPage = customerIds.size() > limit;
+		int fromCustomerId = customerIds.get(0);
+		int toCustomerId = customerIds.get(hasNextPage ? limit - 1 : customerIds.size() - 1);
+		List<TransactionRow> transactions = openRange
+				? transactionRepository.findRowsByCustomerIdBetween(fromCustomerId, toCustomerId)
+				: transactionRepository.findRowsByCustomerIdBetweenAndTransactionDateBetween(fromCustomerId,
+						toCustomerId, startDate, endDate);
+		rewardMetrics.recordRows("page", transactions.size());
 
+		Timer.Sample calculation = rewardMetrics.startCalculation();
+		List<RewardResponseDto> rewards = new ArrayList<>(limit);
+		accumulateByCustomer(transactions.iterator(), view, rewards::add);
+		rewardMetrics.stopCalculation(calculation, "page");
+		return new RewardPageDto(rewards, hasNextPage ? toCustomerId : null);
 	}
 
+	/**
+	 * Streaming counterpart of {@link #calculateAllCustomerRewards}: hands each
+	 * customer's rewards to {@code sink} as soon as the customer's last row has
+	 * been read. Rows are plain projections that the persistence context never
+	 * holds on to, so memory stays bounded by the largest single customer rather
+	 * than by the whole result, and by nothing per customer for a
+	 * {@link RewardView#SUMMARY}. A transaction store scan holds nothing beyond
+	 * the current customer either.
+	 */
+	public void streamAllCustomerRewards(LocalDate startDate, LocalDate endDate, RewardView view,
+			Consumer<RewardResponseDto> sink) {
+		log.debug("Streaming rewards for all customers...");
+
+		if (transactionStore.isEnabled()) {
+			accumulateFromStore(startDate, endDate, Integer.MIN_VALUE, Integer.MAX_VALUE, view, "stream", sink);
+			return;
+		}
+		readOnlyTransaction.executeWithoutResult(status -> {
+			try (Stream<TransactionRow> transactions = (startDate == null || endDate == null)
+					? transactionRepository.streamAllRowsOrderByCustomer()
+					: transactionRepository.streamRowsByTransactionDateBetweenOrderByCustomer(startDate, endDate)) {
+				AtomicLong rows = new AtomicLong();
+				accumulateByCustomer(transactions.peek(row -> rows.incrementAndGet()).iterator(), view, sink);
+				rewardMetrics.recordRows("stream", rows.get());
+			}
+		});
+	}
+
+	/**
+	 * Rewards of one customer, built from the customer's projected rows and its
+	 * name, read once, or from the customer's slices of the transaction store.
+	 */
 	public RewardResponseDto calculateCustomerRewards(int customerId, LocalDate startDate, LocalDate endDate) {
-		log.info("Calculating rewards for customer {}", customerId);
+		RewardRules rules = rewardRuleEngine.getRules(); // the rules the cached rewards are keyed by
+		return customerRewardsCache.get(customerId, startDate, endDate, rules.getVersion(),
+				() -> calculateUncachedCustomerRewards(rules, customerId, startDate, endDate));
+	}
+
+	private RewardResponseDto calculateUncachedCustomerRewards(RewardRules rules, int customerId,
+			LocalDate startDate, LocalDate endDate) {
+		log.debug("Calculating rewards for customer {}", customerId);
 
-		List<Transaction> customerTransactions = getCustomerTransactions(customerId, startDate, endDate);
+		if (transactionStore.isEnabled()) {
+			return calculateCustomerRewardsFromStore(rules, customerId, startDate, endDate);
+		}
+		return readOnlyTransaction
+				.execute(status -> calculateCustomerRewardsFromDatabase(rules, customerId, startDate, endDate));
+	}
+
+	private RewardResponseDto calculateCustomerRewardsFromDatabase(RewardRules rules, int customerId,
+			LocalDate startDate, LocalDate endDate) {
+		List<TransactionRow> customerTransactions = getCustomerTransactions(customerId, startDate, endDate);
+		rewardMetrics.recordRows("customer", customerTransactions.size());
 
 		if (customerTransactions.isEmpty()) {
-			log.error("No transactions found for customer {}", customerId);
+			log.warn("No transactions found for customer {}", customerId);
+			rewardMetrics.customerNotFound();
 			throw new CustomerNotFoundException(customerId);
 		}
 
-		int totalRewardPoints = 0;
-		String customerName = customerTransactions.get(0).getCustomerName();
-		List<TransactionRewardDto> transactionRewardDtos = new ArrayList<>();
-		Map<String, Integer> monthlyRewards = new HashMap<>();
+		Timer.Sample calculation = rewardMetrics.startCalculation();
+		String customerName = transactionRepository.findCustomerNames(customerId, PageRequest.of(0, 1)).get(0);
+		CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(rules, customerId, customerName,
+				RewardView.FULL, customerTransactions.size());
+		for (TransactionRow row : customerTransactions) {
+			accumulator.add(row);
+		}
+		RewardResponseDto rewardResponseDto = accumulator.toRewardResponseDto();
+		rewardMetrics.recordCustomerTransactions(customerTransactions.size());
+		rewardMetrics.stopCalculation(calculation, "customer");
+
+		log.debug("Rewards calculated: CustomerId={}, TotalPoints={}", customerId,
+				rewardResponseDto.getTotalRewardPoints());
+
+		return rewardResponseDto;
+
+	}
 
-		for (Transaction row : customerTransactions) { // populating momnthlyRewards map
-			int rewardPoints = calculateRewardPoints(row.getAmount().intValue());
-			totalRewardPoints += rewardPoints;
+	private RewardResponseDto calculateCustomerRewardsFromStore(RewardRules rules, int customerId,
+			LocalDate startDate, LocalDate endDate) {
+		TransactionSnapshot snapshot = transactionStore.getSnapshot();
+		Timer.Sample calculation = rewardMetrics.startCalculation();
+		CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(rules, customerId,
+				snapshot.getCustomerName(customerId), RewardView.FULL);
+		int rows = snapshot.scanCustomer(customerId, startDate, endDate, accumulator::add);
+		rewardMetrics.recordRows("customer", rows);
+
+		if (rows == 0) {
+			log.warn("No transactions found for customer {}", customerId);
+			rewardMetrics.customerNotFound();
+			throw new CustomerNotFoundException(customerId);
+		}
+
+		rewardMetrics.recordCustomerTransactions(rows);
+		rewardMetrics.stopCalculation(calculation, "customer");
+		return accumulator.toRewardResponseDto();
+	}
 
-			String monthKey = row.getTransactionDate().format(DateTimeFormatter.ofPattern("yyyy-MM"));
-			if (rewardPoints > 0) {
-				monthlyRewards.put(monthKey, monthlyRewards.getOrDefault(monthKey, 0) + rewardPoints);
+	/**
+	 * Rewards of many specific customers, read with one {@code IN} query per
+	 * {@value #BATCH_CHUNK_SIZE} distinct ids instead of one query per customer.
+	 * The ids are queried in ascending order so each chunk covers a narrow slice
+	 * of the customer index; results come back in the order first requested.
+	 * Customers without transactions in the range are listed as not found rather
+	 * than failing the whole batch. The transaction store, when enabled, is
+	 * looked up per customer instead.
+	 */
+	public RewardBatchDto calculateCustomerRewardsBatch(List<Integer> customerIds, LocalDate startDate,
+			LocalDate endDate, RewardView view) {
+		Set<Integer> requestedIds = new LinkedHashSet<>(customerIds);
+		requestedIds.remove(null);
+		log.debug("Calculating rewards for a batch of {} customers", requestedIds.size());
+
+		List<Integer> sortedIds = new ArrayList<>(new TreeSet<>(requestedIds));
+		Map<Integer, RewardResponseDto> rewardsById = new HashMap<>();
+		if (transactionStore.isEnabled()) {
+			batchFromStore(sortedIds, startDate, endDate, view, rewardsById);
+		} else {
+			readOnlyTransaction.executeWithoutResult(status -> batchFromDatabase(sortedIds, startDate, endDate,
+					view, rewardsById));
+		}
+
+		List<RewardResponseDto> rewards = new ArrayList<>(rewardsById.size());
+		List<Integer> notFoundCustomerIds = new ArrayList<>();
+		for (Integer customerId : requestedIds) {
+			RewardResponseDto reward = rewardsById.get(customerId);
+			if (reward == null) {
+				notFoundCustomerIds.add(customerId);
+			} else {
+				rewards.add(reward);
 			}
-			transactionRewardDtos.add(createTransactionRewardDto(row, rewardPoints));
 		}
+		return new RewardBatchDto(rewards, notFoundCustomerIds, Collections.emptyList());
+	}
 
-		log.debug("Rewards calculated: CustomerId={}, TotalPoints={}", customerId, totalRewardPoints);
+	private void batchFromDatabase(List<Integer> sortedIds, LocalDate startDate, LocalDate endDate, RewardView view,
+			Map<Integer, RewardResponseDto> rewardsById) {
+		long rows = 0;
+		for (int from = 0; from < sortedIds.size(); from += BATCH_CHUNK_SIZE) {
+			List<Integer> chunk = sortedIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, sortedIds.size()));
+			List<TransactionRow> transactions = (startDate == null || endDate == null)
+					? transactionRepository.findRowsByCustomerIdInOrderByCustomer(chunk)
+					: transactionRepository.findRowsByCustomerIdInAndTransactionDateBetweenOrderByCustomer(chunk,
+							startDate, endDate);
+			rows += transactions.size();
+			accumulateByCustomer(transactions.iterator(), view,
+					reward -> rewardsById.put(reward.getCustomerId(), reward));
+		}
+		rewardMetrics.recordRows("batch", rows);
+	}
 
-		return createRewardResponseDto(customerId, customerName, totalRewardPoints, monthlyRewards,
-				transactionRewardDtos);
+	private void batchFromStore(List<Integer> sortedIds, LocalDate startDate, LocalDate endDate, RewardView view,
+			Map<Integer, RewardResponseDto> rewardsById) {
+		TransactionSnapshot snapshot = transactionStore.getSnapshot();
+		RewardRules rules = rewardRuleEngine.getRules();
+		long rows = 0;
+		for (int customerId : sortedIds) {
+			CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(rules, customerId,
+					snapshot.getCustomerName(customerId), view);
+			int customerRows = snapshot.scanCustomer(customerId, startDate, endDate, accumulator::add);
+			if (customerRows > 0) {
+				rows += customerRows;
+				rewardsById.put(customerId, accumulator.toRewardResponseDto());
+				rewardMetrics.recordCustomerTransactions(customerRows);
+			}
+		}
+		rewardMetrics.recordRows("batch", rows);
+	}
 
+	/**
+	 * Summary counterpart of {@link #calculateAllCustomerRewards}. Month-aligned
+	 * (or open) ranges are answered from the monthly rewards ledger; any other
+	 * range from the {@link RewardPointsIndex} when it is enabled, or else by
+	 * pushing the reward rules and the monthly grouping into the database, so
+	 * only one row per customer and month is read back either way.
+	 */
+	public List<RewardResponseDto> calculateAllCustomerRewardSummaries(LocalDate startDate, LocalDate endDate) {
+		log.debug("Calculating reward summaries for all customers...");
+
+		if (startDate == null || endDate == null) {
+			return ledgerSummaries(customerMonthlyRewardRepository.findAllByOrderByCustomerIdAscYearMonthAsc());
+		}
+		if (isMonthAligned(startDate, endDate)) {
+			return ledgerSummaries(customerMonthlyRewardRepository
+					.findByYearMonthBetweenOrderByCustomerIdAscYearMonthAsc(YearMonth.from(startDate).toString(),
+							YearMonth.from(endDate).toString()));
+		}
+		if (rewardPointsIndex.isEnabled()) {
+			return aggregatedSummaries("index", rewardPointsIndex.findMonthlyRewardPoints(startDate, endDate));
+		}
+		return aggregatedSummaries("aggregate", rewardAggregationRepository
+				.findMonthlyRewardPointsByTransactionDateBetween(rewardRuleEngine.getRules(), startDate, endDate));
+	}
+
+	/**
+	 * Summary counterpart of {@link #calculateCustomerRewards}, answered from the
+	 * monthly rewards ledger, the points index or aggregated by the database.
+	 */
+	public RewardResponseDto calculateCustomerRewardSummary(int customerId, LocalDate startDate, LocalDate endDate) {
+		log.debug("Calculating reward summary for customer {}", customerId);
+
+		List<RewardResponseDto> summaries;
+		if (startDate == null || endDate == null) {
+			summaries = ledgerSummaries(
+					customerMonthlyRewardRepository.findByCustomerIdOrderByYearMonthAsc(customerId));
+		} else if (isMonthAligned(startDate, endDate)) {
+			summaries = ledgerSummaries(
+					customerMonthlyRewardRepository.findByCustomerIdAndYearMonthBetweenOrderByYearMonthAsc(customerId,
+							YearMonth.from(startDate).toString(), YearMonth.from(endDate).toString()));
+		} else if (rewardPointsIndex.isEnabled()) {
+			summaries = aggregatedSummaries("index",
+					rewardPointsIndex.findMonthlyRewardPoints(customerId, startDate, endDate));
+		} else {
+			summaries = aggregatedSummaries("aggregate",
+					rewardAggregationRepository.findMonthlyRewardPointsByCustomerIdAndTransactionDateBetween(
+							rewardRuleEngine.getRules(), customerId, startDate, endDate));
+		}
+
+		if (summaries.isEmpty()) {
+			log.warn("No transactions found for customer {}", customerId);
+			rewardMetrics.customerNotFound();
+			throw new CustomerNotFoundException(customerId);
+		}
+
+		return summaries.get(0);
+	}
+
+	/**
+	 * The {@code size} customers with the most reward points in the range, most
+	 * first. One total per customer is read, from the same source a summary of
+	 * the range would use, and only the leaders are kept while they stream by.
+	 */
+	public List<RewardLeaderDto> findTopCustomers(int size, LocalDate startDate, LocalDate endDate) {
+		log.debug("Finding the top {} customers from {} to {}", size, startDate, endDate);
+
+		RewardLeaderboard leaderboard = new RewardLeaderboard(size);
+		if (startDate == null || endDate == null) {
+			rewardAggregationRepository.streamLedgerRewardTotals(leaderboard::offer);
+		} else if (isMonthAligned(startDate, endDate)) {
+			rewardAggregationRepository.streamLedgerRewardTotalsByYearMonthBetween(
+					YearMonth.from(startDate).toString(), YearMonth.from(endDate).toString(), leaderboard::offer);
+		} else if (rewardPointsIndex.isEnabled()) {
+			rewardPointsIndex.forEachCustomerTotal(startDate, endDate, leaderboard::offer);
+		} else {
+			rewardAggregationRepository.streamRewardTotalsByTransactionDateBetween(rewardRuleEngine.getRules(),
+					startDate, endDate, leaderboard::offer);
+		}
+		rewardMetrics.recordRows("top", leaderboard.getOffered());
+
+		List<RewardLeaderDto> leaders = new ArrayList<>(size);
+		for (CustomerRewardTotal leader : leaderboard.getLeaders()) {
+			leaders.add(new RewardLeaderDto(leader.getCustomerId(), leader.getCustomerName(),
+					Math.toIntExact(leader.getPoints())));
+		}
+		return leaders;
+	}
+
+	/**
+	 * Version of the transactions behind the all-customer rewards, their
+	 * summaries, pages and leaders over any range, and of the reward rules:
+	 * changes whenever a transaction is added or the rules change. Read without
+	 * a query, so a keyset page costs the same however large the table is: from
+	 * the transaction store when enabled, otherwise from the ledger version,
+	 * which only follows writes through {@link TransactionService} and
+	 * {@link BulkTransactionService}.
+	 */
+	public String getAllCustomerRewardsVersion() {
+		if (transactionStore.isEnabled()) {
+			return toVersion(transactionStore.getSnapshot().version(null, null));
+		}
+		return rewardRuleEngine.getLedgerVersion() + "-" + rewardRuleEngine.getRules().getVersion();
 	}
 
-	private int calculateRewardPoints(int amount) {
-		if (amount <= 50) {
-			return 0;
-		} else if (amount <= 100) {
-			return amount - 50;
+	/**
+	 * Version of the transactions behind one customer's rewards over the range,
+	 * read from the customer index; {@code null} when the customer has no
+	 * transactions in the range.
+	 */
+	public String getCustomerRewardsVersion(int customerId, LocalDate startDate, LocalDate endDate) {
+		TransactionsVersion version;
+		if (transactionStore.isEnabled()) {
+			version = transactionStore.getSnapshot().version(customerId, startDate, endDate);
+		} else if (startDate == null || endDate == null) {
+			version = transactionRepository.findVersionByCustomerId(customerId);
 		} else {
-			return (amount - 100) * 2 + 50;
+			version = transactionRepository.findVersionByCustomerIdAndTransactionDateBetween(customerId, startDate,
+					endDate);
+		}
+		return version.getTransactionCount() == 0 ? null : toVersion(version);
+	}
+
+	private String toVersion(TransactionsVersion version) {
+		return version.getTransactionCount() + "-"
+				+ (version.getMaxTransactionId() == null ? 0 : version.getMaxTransactionId()) + "-"
+				+ rewardRuleEngine.getRules().getVersion();
+	}
+
+	private void accumulateByCustomer(Iterator<TransactionRow> transactions, RewardView view,
+			Consumer<RewardResponseDto> sink) {
+		RewardRules rules = rewardRuleEngine.getRules(); // one set of rules for the whole pass
+		CustomerRewardAccumulator accumulator = null;
+		while (transactions.hasNext()) { // rows arrive grouped by customer
+			TransactionRow row = transactions.next();
+			if (accumulator == null || accumulator.getCustomerId() != row.getCustomerId()) {
+				if (accumulator != null) {
+					sink.accept(accumulator.toRewardResponseDto());
+					rewardMetrics.recordCustomerTransactions(accumulator.getTransactionCount());
+				}
+				accumulator = new CustomerRewardAccumulator(rules, row.getCustomerId(), row.getCustomerName(), view);
+			}
+			accumulator.add(row);
+		}
+		if (accumulator != null) {
+			sink.accept(accumulator.toRewardResponseDto());
+			rewardMetrics.recordCustomerTransactions(accumulator.getTransactionCount());
+		}
+	}
+
+	/**
+	 * Hands the rewards of up to {@code limit} customers above
+	 * {@code afterCustomerId} to {@code sink}, scanned from the transaction store.
+	 *
+	 * @return whether customers beyond the limit have transactions in the range
+	 */
+	private boolean accumulateFromStore(LocalDate startDate, LocalDate endDate, int afterCustomerId, int limit,
+			RewardView view, String operation, Consumer<RewardResponseDto> sink) {
+		RewardRules rules = rewardRuleEngine.getRules(); // one set of rules for the whole pass
+		AtomicLong rows = new AtomicLong();
+		AtomicInteger customers = new AtomicInteger();
+		AtomicBoolean more = new AtomicBoolean();
+		Timer.Sample calculation = rewardMetrics.startCalculation();
+		transactionStore.getSnapshot().forEachCustomer(startDate, endDate, afterCustomerId,
+				(customerId, customerName, customerRows) -> {
+					if (customers.get() == limit) {
+						more.set(true);
+						return false;
+					}
+					CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(rules, customerId,
+							customerName, view);
+					rows.addAndGet(customerRows.forEach(accumulator::add));
+					sink.accept(accumulator.toRewardResponseDto());
+					rewardMetrics.recordCustomerTransactions(accumulator.getTransactionCount());
+					customers.incrementAndGet();
+					return true;
+				});
+		rewardMetrics.stopCalculation(calculation, operation);
+		rewardMetrics.recordRows(operation, rows.get());
+		return more.get();
+	}
+
+	private List<RewardResponseDto> ledgerSummaries(List<CustomerMonthlyReward> ledgerRows) {
+		rewardMetrics.recordRows("ledger", ledgerRows.size());
+		List<RewardResponseDto> summaries = new ArrayList<>();
+		for (CustomerMonthlyReward row : ledgerRows) { // rows arrive grouped by customer, then month
+			addMonthlyPoints(summaries, row.getCustomerId(), row.getCustomerName(), row.getYearMonth(),
+					row.getPoints());
+		}
+		return summaries;
+	}
+
+	private List<RewardResponseDto> aggregatedSummaries(String source, List<MonthlyRewardPoints> monthlyPoints) {
+		rewardMetrics.recordRows(source, monthlyPoints.size());
+		List<RewardResponseDto> summaries = new ArrayList<>();
+		for (MonthlyRewardPoints row : monthlyPoints) { // rows arrive grouped by customer, then month
+			addMonthlyPoints(summaries, row.getCustomerId(), row.getCustomerName(),
+					YearMonth.of(row.getRewardYear(), row.getRewardMonth()).toString(),
+					Math.toIntExact(row.getPoints()));
+		}
+		return summaries;
+	}
+
+	private void addMonthlyPoints(List<RewardResponseDto> summaries, int customerId, String customerName,
+			String monthKey, int points) {
+		RewardResponseDto summary = summaries.isEmpty() ? null : summaries.get(summaries.size() - 1);
+		if (summary == null || summary.getCustomerId() != customerId) {
+			summary = RewardResponseDto.builder().customerId(customerId).customerName(customerName)
+					.monthlyRewards(new LinkedHashMap<>()).build();
+			summaries.add(summary);
+		}
+		summary.setTotalRewardPoints(summary.getTotalRewardPoints() + points);
+		if (points > 0) {
+			summary.getMonthlyRewards().put(monthKey, points);
 		}
 	}
 
-	private TransactionRewardDto createTransactionRewardDto(Transaction transaction, int rewardPoints) {
-		return TransactionRewardDto.builder().transactionId(transaction.getTransactionId())
-				.transactionAmount(transaction.getAmount()).transactionDate(transaction.getTransactionDate())
-				.transactionRewardPoints(rewardPoints).build();
+	private boolean isMonthAligned(LocalDate startDate, LocalDate endDate) {
+		return startDate.getDayOfMonth() == 1 && endDate.equals(endDate.with(TemporalAdjusters.lastDayOfMonth()));
 	}
 
-	private RewardResponseDto createRewardResponseDto(int customerId, String customerName, int totalRewardPoints,
-			Map<String, Integer> monthlyRewards, List<TransactionRewardDto> transactionRewardDtos) {
-		return RewardResponseDto.builder().customerId(customerId).customerName(customerName)
-				.totalRewardPoints(totalRewardPoints).monthlyRewards(monthlyRewards).transactions(transactionRewardDtos)
-				.build();
+	private List<TransactionRow> getAllTransactions(LocalDate startDate, LocalDate endDate) {
+		return (startDate == null || endDate == null) ? transactionRepository.findAllRowsOrderByCustomer()
+				: transactionRepository.findRowsByTransactionDateBetweenOrderByCustomer(startDate, endDate);
 	}
 
-	private List<Transaction> getCustomerTransactions(int customerId, LocalDate startDate, LocalDate endDate) {
-		log.error("here");
-		List<Transaction> transactions = (startDate == null || endDate == null)
-				? transactionRepository.findByCustomerId(customerId)
-				: transactionRepository.findByCustomerIdAndTransactionDateBetween(customerId, startDate, endDate);
+	private List<TransactionRow> getCustomerTransactions(int customerId, LocalDate startDate, LocalDate endDate) {
+		List<TransactionRow> transactions = (startDate == null || endDate == null)
+				? transactionRepository.findRowsByCustomerId(customerId)
+				: transactionRepository.findRowsByCustomerIdAndTransactionDateBetween(customerId, startDate,
+						endDate);
 
-		log.info("Fetched transactions for customer {}: {}", customerId, transactions);
+		log.debug("Fetched {} transactions for customer {}", transactions.size(), customerId);
 		return transactions;
 	}
 
-}
\ No newline at end of file
+}
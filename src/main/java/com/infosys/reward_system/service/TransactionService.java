@@ -0,0 +1,77 @@
+package com.infosys.reward_system.service;
+
+import java.time.YearMonth;
+import java.util.Collections;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.BulkTransactionRepository;
+import com.infosys.reward_system.repository.TransactionRepository;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write path for transactions. Every transaction saved here is added to the
+ * {@code customer_monthly_rewards} ledger in the same database transaction, and
+ * the customer's cached rewards are evicted and its points added to the
+ * {@link RewardPointsIndex} once it commits. The {@link TransactionStore}, when
+ * enabled, picks the transaction up right after.
+ */
+@Service
+@Slf4j
+public class TransactionService {
+
+	private final TransactionRepository transactionRepository;
+	private final BulkTransactionRepository bulkTransactionRepository;
+	private final CustomerRewardsCache customerRewardsCache;
+	private final RewardRuleEngine rewardRuleEngine;
+	private final TransactionTemplate transactionTemplate;
+	private final TransactionStore transactionStore;
+	private final RewardPointsIndex rewardPointsIndex;
+
+	public TransactionService(TransactionRepository transactionRepository,
+			BulkTransactionRepository bulkTransactionRepository,
+			CustomerRewardsCache customerRewardsCache, RewardRuleEngine rewardRuleEngine,
+			PlatformTransactionManager transactionManager, TransactionStore transactionStore,
+			RewardPointsIndex rewardPointsIndex) {
+		this.transactionRepository = transactionRepository;
+		this.bulkTransactionRepository = bulkTransactionRepository;
+		this.customerRewardsCache = customerRewardsCache;
+		this.rewardRuleEngine = rewardRuleEngine;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionStore = transactionStore;
+		this.rewardPointsIndex = rewardPointsIndex;
+	}
+
+	/**
+	 * Saves the transaction and its ledger points under the rules in force; the
+	 * database transaction commits before a rules change can rebuild the ledger.
+	 */
+	public Transaction saveTransaction(Transaction transaction) {
+		Transaction savedTransaction = rewardRuleEngine.writeLedger(rules -> transactionTemplate.execute(status -> {
+			Transaction saved = transactionRepository.save(transaction);
+
+			int rewardPoints = rules.points(CustomerRewardAccumulator.toCents(saved.getAmount()),
+					saved.getTransactionDate());
+			String yearMonth = YearMonth.from(saved.getTransactionDate()).toString();
+			bulkTransactionRepository.addToLedger(CustomerMonthlyReward.builder().customerId(saved.getCustomerId())
+					.yearMonth(yearMonth).customerName(saved.getCustomerName()).points(rewardPoints).txnCount(1)
+					.build());
+			customerRewardsCache.evictCustomer(saved.getCustomerId());
+			rewardPointsIndex.add(Collections.singletonList(new DailyRewardPoints(saved.getCustomerId(),
+					saved.getCustomerName(), saved.getTransactionDate(), rewardPoints)));
+
+			log.debug("Saved transaction {} for customer {}: {} points in {}", saved.getTransactionId(),
+					saved.getCustomerId(), rewardPoints, yearMonth);
+			return saved;
+		}));
+		transactionStore.requestRefresh();
+		return savedTransaction;
+	}
+
+}
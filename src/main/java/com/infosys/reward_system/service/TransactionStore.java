@@ -0,0 +1,165 @@
+package com.infosys.reward_system.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.store.TransactionBatch;
+import com.infosys.reward_system.store.TransactionSnapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link TransactionSnapshot} of the {@code transactions} table for
+ * {@link RewardService} to read from when {@code reward.store.enabled} is set.
+ * The table is loaded at startup; afterwards only rows above the highest loaded
+ * transaction id are read, right after each {@link BulkTransactionService}
+ * upload, on a background thread shortly after writes through
+ * {@link TransactionService}, and every {@code reward.store.refresh-interval}
+ * for anything written around them.
+ * <p>
+ * Rows are read while no ledger write is in progress, so no transaction with a
+ * lower id can commit after a higher one has been loaded. The merged snapshot
+ * is swapped in with a single volatile write, then the cached rewards of the
+ * customers it changed are evicted.
+ */
+@Component
+@Slf4j
+public class TransactionStore implements InitializingBean, DisposableBean {
+	private static final String SELECT_TRANSACTIONS_AFTER = "SELECT transaction_id, customer_id, customer_name,"
+			+ " amount, transaction_date FROM transactions WHERE transaction_id > ? ORDER BY transaction_id";
+	/** Above this many changed customers the whole reward cache is dropped. */
+	private static final int MAX_CUSTOMER_EVICTIONS = 100;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final RewardRuleEngine rewardRuleEngine;
+	private final CustomerRewardsCache customerRewardsCache;
+	private final boolean enabled;
+	private final ThreadPoolTaskExecutor refreshExecutor;
+	private final AtomicBoolean refreshRequested = new AtomicBoolean();
+
+	private volatile TransactionSnapshot snapshot = TransactionSnapshot.EMPTY;
+
+	@Autowired
+	public TransactionStore(JdbcTemplate jdbcTemplate, RewardRuleEngine rewardRuleEngine,
+			CustomerRewardsCache customerRewardsCache, RewardProperties rewardProperties) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.rewardRuleEngine = rewardRuleEngine;
+		this.customerRewardsCache = customerRewardsCache;
+		this.enabled = rewardProperties.getStore().isEnabled();
+		if (enabled) {
+			this.refreshExecutor = new ThreadPoolTaskExecutor();
+			refreshExecutor.setCorePoolSize(1);
+			refreshExecutor.setMaxPoolSize(1);
+			refreshExecutor.setThreadNamePrefix("transaction-store-");
+			refreshExecutor.initialize();
+		} else {
+			this.refreshExecutor = null;
+		}
+	}
+
+	/**
+	 * A fixed snapshot that is never refreshed, for reads outside the application
+	 * context.
+	 */
+	TransactionStore(TransactionSnapshot snapshot) {
+		this.jdbcTemplate = null;
+		this.rewardRuleEngine = null;
+		this.customerRewardsCache = null;
+		this.enabled = true;
+		this.refreshExecutor = null;
+		this.snapshot = snapshot;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public TransactionSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (enabled) {
+			long startedAt = System.nanoTime();
+			refresh();
+			log.info("Transaction store loaded {} transactions of {} customers in {} ms",
+					snapshot.getTransactionCount(), snapshot.getCustomerCount(),
+					(System.nanoTime() - startedAt) / 1_000_000);
+		}
+	}
+
+	/**
+	 * Refreshes the snapshot soon, off the caller's thread, so a write does not
+	 * wait for the other writers in progress. Requests made before a queued
+	 * refresh starts share it.
+	 */
+	public void requestRefresh() {
+		if (refreshExecutor != null && refreshRequested.compareAndSet(false, true)) {
+			refreshExecutor.execute(() -> {
+				refreshRequested.set(false);
+				try {
+					refresh();
+				} catch (RuntimeException ex) {
+					log.warn("Transaction store refresh failed, left to the scheduled one", ex);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Merges the transactions written since the last refresh into a new
+	 * snapshot and makes it current.
+	 *
+	 * @return the number of transactions added
+	 */
+	@Scheduled(initialDelayString = "${reward.store.refresh-interval:PT10S}",
+			fixedDelayString = "${reward.store.refresh-interval:PT10S}")
+	public synchronized int refresh() {
+		if (!enabled || jdbcTemplate == null) {
+			return 0;
+		}
+		TransactionSnapshot current = snapshot;
+		TransactionBatch batch = rewardRuleEngine.withoutLedgerWrites(() -> readAfter(current.getMaxTransactionId()));
+		if (batch.size() == 0) {
+			return 0;
+		}
+		snapshot = current.with(batch);
+
+		int[] customerIds = batch.getCustomerIds();
+		if (customerIds.length > MAX_CUSTOMER_EVICTIONS) {
+			customerRewardsCache.evictAll();
+		} else {
+			for (int customerId : customerIds) {
+				customerRewardsCache.evictCustomer(customerId);
+			}
+		}
+		log.debug("Transaction store refreshed with {} transactions of {} customers", batch.size(),
+				customerIds.length);
+		return batch.size();
+	}
+
+	@Override
+	public void destroy() {
+		if (refreshExecutor != null) {
+			refreshExecutor.shutdown();
+		}
+	}
+
+	private TransactionBatch readAfter(int transactionId) {
+		TransactionBatch batch = new TransactionBatch();
+		jdbcTemplate.query(SELECT_TRANSACTIONS_AFTER, (RowCallbackHandler) rs -> batch.add(rs.getInt(1), rs.getInt(2),
+				rs.getString(3), rs.getDate(5).toLocalDate(), CustomerRewardAccumulator.toCents(rs.getBigDecimal(4))),
+				transactionId);
+		return batch;
+	}
+}
@@ -0,0 +1,104 @@
+package com.infosys.reward_system.store;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The transactions of one calendar month as parallel primitive columns, grouped
+ * by customer and in transaction id order within each customer. The rows of
+ * {@code customerIds[i]} are {@code offsets[i]} to {@code offsets[i + 1]}.
+ * Immutable once built.
+ */
+final class MonthPartition {
+	/** {@code year * 12 + month - 1}. */
+	final int month;
+	final int firstDay;
+	final int lastDay;
+
+	final int[] customerIds;
+	final int[] offsets;
+	final int[] transactionIds;
+	final int[] epochDays;
+	final long[] amountCents;
+	final int maxTransactionId;
+
+	private MonthPartition(int month, int[] customerIds, int[] offsets, int[] transactionIds, int[] epochDays,
+			long[] amountCents) {
+		LocalDate first = LocalDate.of(month / 12, month % 12 + 1, 1);
+		this.month = month;
+		this.firstDay = Math.toIntExact(first.toEpochDay());
+		this.lastDay = Math.toIntExact(first.plusMonths(1).toEpochDay() - 1);
+		this.customerIds = customerIds;
+		this.offsets = offsets;
+		this.transactionIds = transactionIds;
+		this.epochDays = epochDays;
+		this.amountCents = amountCents;
+		int max = 0;
+		for (int transactionId : transactionIds) {
+			max = Math.max(max, transactionId);
+		}
+		this.maxTransactionId = max;
+	}
+
+	static int monthOf(LocalDate date) {
+		return date.getYear() * 12 + date.getMonthValue() - 1;
+	}
+
+	int size() {
+		return transactionIds.length;
+	}
+
+	/**
+	 * The rows of {@code existing}, which may be {@code null}, followed by the
+	 * batch rows at {@code batchRows[0..batchRowCount)}, regrouped by customer.
+	 * Batch ids are above every existing id, so ordering the concatenation by
+	 * customer and then by position keeps each customer's rows in id order.
+	 */
+	static MonthPartition merge(int month, MonthPartition existing, TransactionBatch batch, int[] batchRows,
+			int batchRowCount) {
+		int existingSize = existing == null ? 0 : existing.size();
+		int size = existingSize + batchRowCount;
+
+		long[] keys = new long[size];
+		int row = 0;
+		if (existing != null) {
+			for (int c = 0; c < existing.customerIds.length; c++) {
+				for (int r = existing.offsets[c]; r < existing.offsets[c + 1]; r++, row++) {
+					keys[row] = (long) existing.customerIds[c] << 32 | row;
+				}
+			}
+		}
+		for (int i = 0; i < batchRowCount; i++, row++) {
+			keys[row] = (long) batch.customerIds[batchRows[i]] << 32 | row;
+		}
+		Arrays.sort(keys);
+
+		int[] transactionIds = new int[size];
+		int[] epochDays = new int[size];
+		long[] amountCents = new long[size];
+		int[] customerIds = new int[size];
+		int[] offsets = new int[size + 1];
+		int customers = 0;
+		for (int i = 0; i < size; i++) {
+			int customerId = (int) (keys[i] >> 32);
+			int source = (int) keys[i];
+			if (customers == 0 || customerIds[customers - 1] != customerId) {
+				customerIds[customers] = customerId;
+				offsets[customers++] = i;
+			}
+			if (source < existingSize) {
+				transactionIds[i] = existing.transactionIds[source];
+				epochDays[i] = existing.epochDays[source];
+				amountCents[i] = existing.amountCents[source];
+			} else {
+				int batchRow = batchRows[source - existingSize];
+				transactionIds[i] = batch.transactionIds[batchRow];
+				epochDays[i] = batch.epochDays[batchRow];
+				amountCents[i] = batch.amountCents[batchRow];
+			}
+		}
+		offsets[customers] = size;
+		return new MonthPartition(month, Arrays.copyOf(customerIds, customers), Arrays.copyOf(offsets, customers + 1),
+				transactionIds, epochDays, amountCents);
+	}
+}
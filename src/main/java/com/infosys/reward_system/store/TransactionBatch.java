@@ -0,0 +1,67 @@
+package com.infosys.reward_system.store;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transactions read for a {@link TransactionSnapshot}, in ascending transaction
+ * id order, held in growable primitive columns until they are merged in.
+ */
+public final class TransactionBatch {
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private int size;
+	int[] transactionIds = new int[INITIAL_CAPACITY];
+	int[] customerIds = new int[INITIAL_CAPACITY];
+	int[] months = new int[INITIAL_CAPACITY];
+	int[] epochDays = new int[INITIAL_CAPACITY];
+	long[] amountCents = new long[INITIAL_CAPACITY];
+	/** Name on each customer's first transaction in the batch. */
+	final Map<Integer, String> customerNames = new HashMap<>();
+
+	/**
+	 * @throws IllegalArgumentException if {@code transactionId} is not above the
+	 *                                  previous one
+	 */
+	public void add(int transactionId, int customerId, String customerName, LocalDate transactionDate,
+			long amountCents) {
+		if (size > 0 && transactionId <= transactionIds[size - 1]) {
+			throw new IllegalArgumentException("Transactions out of id order: " + transactionId + " after "
+					+ transactionIds[size - 1]);
+		}
+		if (size == transactionIds.length) {
+			int capacity = size * 2;
+			transactionIds = Arrays.copyOf(transactionIds, capacity);
+			customerIds = Arrays.copyOf(customerIds, capacity);
+			months = Arrays.copyOf(months, capacity);
+			epochDays = Arrays.copyOf(epochDays, capacity);
+			this.amountCents = Arrays.copyOf(this.amountCents, capacity);
+		}
+		transactionIds[size] = transactionId;
+		customerIds[size] = customerId;
+		months[size] = MonthPartition.monthOf(transactionDate);
+		epochDays[size] = Math.toIntExact(transactionDate.toEpochDay());
+		this.amountCents[size] = amountCents;
+		customerNames.putIfAbsent(customerId, customerName);
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/** Distinct customers with transactions in the batch. */
+	public int[] getCustomerIds() {
+		return customerNames.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+	}
+
+	int firstTransactionId() {
+		return transactionIds[0];
+	}
+
+	int lastTransactionId() {
+		return transactionIds[size - 1];
+	}
+}
@@ -0,0 +1,358 @@
+package com.infosys.reward_system.store;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import com.infosys.reward_system.repository.projection.TransactionsVersion;
+
+/**
+ * Immutable in-memory copy of the {@code transactions} table, holding only what
+ * rewards are calculated from: transaction id, epoch day and whole cents, in
+ * {@link MonthPartition month partitions}, plus each customer's name once.
+ * <p>
+ * A date range touches only the partitions of its months, and only the first
+ * and last of those are filtered by day. Within a partition a customer's rows
+ * are found through its offset index, and customers are visited in ascending
+ * id order with per-partition cursors that only move forward, so a scan over
+ * every customer reads each column once, in runs. New transactions are
+ * merged {@link #with into a copy}; readers holding the old snapshot are not
+ * affected.
+ */
+public final class TransactionSnapshot {
+	public static final TransactionSnapshot EMPTY = new TransactionSnapshot(new MonthPartition[0], new int[0],
+			new String[0], 0, 0);
+
+	/** Receives one transaction of a customer. */
+	@FunctionalInterface
+	public interface RowVisitor {
+		void row(int transactionId, int month, int epochDay, long amountCents);
+	}
+
+	/** The rows of the customer being visited, valid during the visit only. */
+	public interface CustomerRows {
+		/**
+		 * Hands the customer's rows in the range to {@code visitor} month by month,
+		 * in transaction id order within each month.
+		 *
+		 * @return the number of rows visited
+		 */
+		int forEach(RowVisitor visitor);
+	}
+
+	/** Receives customers in ascending id order; returns whether to go on. */
+	@FunctionalInterface
+	public interface CustomerVisitor {
+		boolean customer(int customerId, String customerName, CustomerRows rows);
+	}
+
+	private final MonthPartition[] partitions;
+	private final int[] months;
+	private final int[] customerIds;
+	private final String[] customerNames;
+	private final long transactionCount;
+	private final int maxTransactionId;
+
+	private TransactionSnapshot(MonthPartition[] partitions, int[] customerIds, String[] customerNames,
+			long transactionCount, int maxTransactionId) {
+		this.partitions = partitions;
+		this.months = new int[partitions.length];
+		for (int i = 0; i < partitions.length; i++) {
+			months[i] = partitions[i].month;
+		}
+		this.customerIds = customerIds;
+		this.customerNames = customerNames;
+		this.transactionCount = transactionCount;
+		this.maxTransactionId = maxTransactionId;
+	}
+
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+
+	public int getMaxTransactionId() {
+		return maxTransactionId;
+	}
+
+	public int getCustomerCount() {
+		return customerIds.length;
+	}
+
+	/**
+	 * This snapshot with {@code batch} merged in; only the partitions of the
+	 * batch's months are rebuilt, the others are shared.
+	 *
+	 * @throws IllegalArgumentException if the batch holds ids not above
+	 *                                  {@link #getMaxTransactionId()}
+	 */
+	public TransactionSnapshot with(TransactionBatch batch) {
+		if (batch.size() == 0) {
+			return this;
+		}
+		if (batch.firstTransactionId() <= maxTransactionId) {
+			throw new IllegalArgumentException("Transaction " + batch.firstTransactionId()
+					+ " is not above the latest loaded one, " + maxTransactionId);
+		}
+
+		int[] batchMonths = Arrays.copyOf(batch.months, batch.size());
+		int[] order = sortedIndexes(batchMonths);
+		int[] newMonths = Arrays.stream(batchMonths).distinct().sorted().toArray();
+		int[] mergedMonths = Arrays.stream(concat(months, newMonths)).distinct().sorted().toArray();
+
+		MonthPartition[] merged = new MonthPartition[mergedMonths.length];
+		int[] batchRows = new int[batch.size()];
+		int next = 0;
+		for (int i = 0; i < mergedMonths.length; i++) {
+			int month = mergedMonths[i];
+			int existing = Arrays.binarySearch(months, month);
+			int count = 0;
+			while (next < order.length && batchMonths[order[next]] == month) {
+				batchRows[count++] = order[next++];
+			}
+			merged[i] = count == 0 ? partitions[existing]
+					: MonthPartition.merge(month, existing >= 0 ? partitions[existing] : null, batch, batchRows, count);
+		}
+
+		int[] newCustomers = Arrays.stream(batch.getCustomerIds())
+				.filter(customerId -> Arrays.binarySearch(customerIds, customerId) < 0).toArray();
+		if (newCustomers.length == 0) { // the customer arrays are never written, so they are shared
+			return new TransactionSnapshot(merged, customerIds, customerNames, transactionCount + batch.size(),
+					batch.lastTransactionId());
+		}
+		int[] mergedCustomers = new int[customerIds.length + newCustomers.length];
+		String[] mergedNames = new String[mergedCustomers.length];
+		for (int i = 0, known = 0, added = 0; i < mergedCustomers.length; i++) {
+			if (added == newCustomers.length
+					|| (known < customerIds.length && customerIds[known] < newCustomers[added])) {
+				mergedCustomers[i] = customerIds[known];
+				mergedNames[i] = customerNames[known++];
+			} else {
+				mergedCustomers[i] = newCustomers[added];
+				mergedNames[i] = batch.customerNames.get(newCustomers[added++]);
+			}
+		}
+
+		return new TransactionSnapshot(merged, mergedCustomers, mergedNames, transactionCount + batch.size(),
+				batch.lastTransactionId());
+	}
+
+	/**
+	 * Name on the customer's first transaction, or {@code null} for an unknown
+	 * customer.
+	 */
+	public String getCustomerName(int customerId) {
+		int index = Arrays.binarySearch(customerIds, customerId);
+		return index >= 0 ? customerNames[index] : null;
+	}
+
+	/**
+	 * Visits every customer above {@code afterCustomerId} with rows between the
+	 * dates, either of which may be {@code null} for an open range.
+	 */
+	public void forEachCustomer(LocalDate startDate, LocalDate endDate, int afterCustomerId,
+			CustomerVisitor visitor) {
+		Slices slices = new Slices(DayRange.of(startDate, endDate), afterCustomerId);
+		int from = Arrays.binarySearch(customerIds, afterCustomerId);
+		for (int i = from >= 0 ? from + 1 : -from - 1; i < customerIds.length; i++) {
+			if (slices.seek(customerIds[i]) && !visitor.customer(customerIds[i], customerNames[i], slices)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Visits one customer's rows between the dates.
+	 *
+	 * @return the number of rows visited
+	 */
+	public int scanCustomer(int customerId, LocalDate startDate, LocalDate endDate, RowVisitor visitor) {
+		Slices slices = new Slices(DayRange.of(startDate, endDate), customerId);
+		return slices.seek(customerId) ? slices.forEach(visitor) : 0;
+	}
+
+	/**
+	 * Count and highest id of the transactions between the dates, matching the
+	 * database's version of the same range.
+	 */
+	public TransactionsVersion version(LocalDate startDate, LocalDate endDate) {
+		if (startDate == null || endDate == null) {
+			return new TransactionsVersion(transactionCount, transactionCount == 0 ? null : maxTransactionId);
+		}
+		DayRange range = DayRange.of(startDate, endDate);
+		long count = 0;
+		int max = 0;
+		for (int p = range.firstPartition(months); p < range.endPartition(months); p++) {
+			MonthPartition partition = partitions[p];
+			if (range.covers(partition)) {
+				count += partition.size();
+				max = Math.max(max, partition.maxTransactionId);
+				continue;
+			}
+			for (int row = 0; row < partition.size(); row++) {
+				if (range.contains(partition.epochDays[row])) {
+					count++;
+					max = Math.max(max, partition.transactionIds[row]);
+				}
+			}
+		}
+		return new TransactionsVersion(count, count == 0 ? null : max);
+	}
+
+	/**
+	 * Count and highest id of one customer's transactions between the dates.
+	 */
+	public TransactionsVersion version(int customerId, LocalDate startDate, LocalDate endDate) {
+		long[] count = new long[1];
+		int[] max = new int[1];
+		scanCustomer(customerId, startDate, endDate, (transactionId, month, epochDay, amountCents) -> {
+			count[0]++;
+			max[0] = Math.max(max[0], transactionId);
+		});
+		return new TransactionsVersion(count[0], count[0] == 0 ? null : max[0]);
+	}
+
+	private static int[] sortedIndexes(int[] values) {
+		long[] keys = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			keys[i] = (long) values[i] << 32 | i;
+		}
+		Arrays.sort(keys);
+		int[] indexes = new int[values.length];
+		for (int i = 0; i < keys.length; i++) {
+			indexes[i] = (int) keys[i];
+		}
+		return indexes;
+	}
+
+	private static int[] concat(int[] first, int[] second) {
+		int[] all = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, all, first.length, second.length);
+		return all;
+	}
+
+	/**
+	 * Inclusive epoch day bounds of a date range and the months they fall in.
+	 */
+	private static final class DayRange {
+		final int startDay;
+		final int endDay;
+		final int startMonth;
+		final int endMonth;
+
+		private DayRange(int startDay, int endDay, int startMonth, int endMonth) {
+			this.startDay = startDay;
+			this.endDay = endDay;
+			this.startMonth = startMonth;
+			this.endMonth = endMonth;
+		}
+
+		static DayRange of(LocalDate startDate, LocalDate endDate) {
+			if (startDate == null || endDate == null) {
+				return new DayRange(Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			}
+			return new DayRange(Math.toIntExact(startDate.toEpochDay()), Math.toIntExact(endDate.toEpochDay()),
+					MonthPartition.monthOf(startDate), MonthPartition.monthOf(endDate));
+		}
+
+		int firstPartition(int[] months) {
+			int index = Arrays.binarySearch(months, startMonth);
+			return index >= 0 ? index : -index - 1;
+		}
+
+		int endPartition(int[] months) {
+			if (endMonth == Integer.MAX_VALUE) {
+				return months.length;
+			}
+			int index = Arrays.binarySearch(months, endMonth);
+			return index >= 0 ? index + 1 : -index - 1;
+		}
+
+		boolean covers(MonthPartition partition) {
+			return startDay <= partition.firstDay && partition.lastDay <= endDay;
+		}
+
+		boolean contains(int epochDay) {
+			return startDay <= epochDay && epochDay <= endDay;
+		}
+	}
+
+	/**
+	 * One customer's row ranges in each partition of a date range. Seeking moves
+	 * forward only, so customers must be sought in ascending id order.
+	 */
+	private final class Slices implements CustomerRows {
+		private final DayRange range;
+		private final int first;
+		private final int[] customerCursors;
+		private final boolean[] covered;
+		private final int[] from;
+		private final int[] to;
+
+		Slices(DayRange range, int fromCustomerId) {
+			this.range = range;
+			this.first = range.firstPartition(months);
+			int count = Math.max(range.endPartition(months) - first, 0);
+			this.customerCursors = new int[count];
+			this.covered = new boolean[count];
+			this.from = new int[count];
+			this.to = new int[count];
+			for (int s = 0; s < count; s++) {
+				MonthPartition partition = partitions[first + s];
+				int index = Arrays.binarySearch(partition.customerIds, fromCustomerId);
+				customerCursors[s] = index >= 0 ? index : -index - 1;
+				covered[s] = range.covers(partition);
+			}
+		}
+
+		/**
+		 * Positions the slices on {@code customerId}.
+		 *
+		 * @return whether the customer has rows in the range
+		 */
+		boolean seek(int customerId) {
+			boolean found = false;
+			for (int s = 0; s < from.length; s++) {
+				MonthPartition partition = partitions[first + s];
+				int cursor = customerCursors[s];
+				while (cursor < partition.customerIds.length && partition.customerIds[cursor] < customerId) {
+					cursor++;
+				}
+				customerCursors[s] = cursor;
+				if (cursor < partition.customerIds.length && partition.customerIds[cursor] == customerId) {
+					from[s] = partition.offsets[cursor];
+					to[s] = partition.offsets[cursor + 1];
+					found = found || covered[s] || anyInRange(partition, from[s], to[s]);
+				} else {
+					from[s] = 0;
+					to[s] = 0;
+				}
+			}
+			return found;
+		}
+
+		@Override
+		public int forEach(RowVisitor visitor) {
+			int rows = 0;
+			for (int s = 0; s < from.length; s++) {
+				MonthPartition partition = partitions[first + s];
+				for (int row = from[s]; row < to[s]; row++) {
+					int epochDay = partition.epochDays[row];
+					if (covered[s] || range.contains(epochDay)) {
+						visitor.row(partition.transactionIds[row], partition.month, epochDay,
+								partition.amountCents[row]);
+						rows++;
+					}
+				}
+			}
+			return rows;
+		}
+
+		private boolean anyInRange(MonthPartition partition, int fromRow, int toRow) {
+			for (int row = fromRow; row < toRow; row++) {
+				if (range.contains(partition.epochDays[row])) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
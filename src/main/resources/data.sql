@@ -1,4 +1,12 @@
 DELETE FROM transactions;
+DELETE FROM customer_monthly_rewards;
+DELETE FROM reward_ledger_rules;
+DELETE FROM reward_tiers;
+DELETE FROM reward_promotions;
+
+-- 1 point per dollar over $50, 2 points per dollar over $100
+INSERT INTO reward_tiers (threshold_amount, points_per_dollar) VALUES (50, 1);
+INSERT INTO reward_tiers (threshold_amount, points_per_dollar) VALUES (100, 2);
 
 -- Customer 1 Transactions
 INSERT INTO transactions (customer_id, customer_name, amount, transaction_date) VALUES (1, 'Saurabh', 45.00, '2024-11-03'); -- Below 50
@@ -47,3 +55,5 @@ INSERT INTO transactions (customer_id, customer_name, amount, transaction_date)
 INSERT INTO transactions (customer_id, customer_name, amount, transaction_date) VALUES (3, 'Tamilarasan', 72.00, '2025-01-14'); -- Between 50 & 100
 INSERT INTO transactions (customer_id, customer_name, amount, transaction_date) VALUES (3, 'Tamilarasan', 110.00, '2025-01-21'); -- Above 100
 INSERT INTO transactions (customer_id, customer_name, amount, transaction_date) VALUES (3, 'Tamilarasan', 95.00, '2025-01-28'); -- Between 50 & 100
+
+-- The monthly rewards ledger is built from these transactions under the reward rules at startup
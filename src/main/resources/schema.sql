@@ -1,4 +1,9 @@
 DROP TABLE IF EXISTS transactions;
+DROP TABLE IF EXISTS customer_monthly_rewards;
+DROP TABLE IF EXISTS reward_ledger_rules;
+DROP TABLE IF EXISTS reward_report_jobs;
+DROP TABLE IF EXISTS reward_tiers;
+DROP TABLE IF EXISTS reward_promotions;
 
 CREATE TABLE transactions (
     transaction_id INT PRIMARY KEY AUTO_INCREMENT, 
@@ -6,4 +11,49 @@ CREATE TABLE transactions (
     customer_name VARCHAR(255),                          
     amount DECIMAL(10,2),                         
     transaction_date DATE
-);
\ No newline at end of file
+);
+
+-- Serves customer and customer/date-range lookups; amount is included so reward aggregations can be read from the index
+CREATE INDEX idx_transactions_customer_date_amount ON transactions (customer_id, transaction_date, amount);
+
+-- Reward points per customer and month, maintained incrementally on every transaction write
+CREATE TABLE customer_monthly_rewards (
+    customer_id INTEGER NOT NULL,
+    yyyy_mm CHAR(7) NOT NULL,
+    customer_name VARCHAR(255),
+    points INTEGER NOT NULL,
+    txn_count INTEGER NOT NULL,
+    PRIMARY KEY (customer_id, yyyy_mm)
+);
+
+-- Version of the reward rules the ledger was last rebuilt under, one row; a restart with the same rules keeps the ledger
+CREATE TABLE reward_ledger_rules (
+    rules_version VARCHAR(32) NOT NULL
+);
+
+-- Asynchronous all-customer reward reports; results are written to files and purged after the retention period
+CREATE TABLE reward_report_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    start_date DATE,
+    end_date DATE,
+    status VARCHAR(16) NOT NULL,
+    customers_total INTEGER,
+    customers_done INTEGER NOT NULL,
+    error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- Reward tiers: each whole dollar above threshold_amount, up to the next threshold, earns points_per_dollar
+CREATE TABLE reward_tiers (
+    threshold_amount INTEGER PRIMARY KEY,
+    points_per_dollar INTEGER NOT NULL
+);
+
+-- Promotions: transactions dated within the period earn multiplier_percent of their tier points (200 = double)
+CREATE TABLE reward_promotions (
+    promotion_id INT PRIMARY KEY AUTO_INCREMENT,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    multiplier_percent INTEGER NOT NULL
+);
@@ -0,0 +1,30 @@
+package com.infosys.reward_system;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:faststartdb;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles({ "prod", "fast-start" })
+class FastStartProfileTests {
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@Test
+	void scheduledBeansStayEagerUnderLazyInitialization() {
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+
+		assertTrue(beanFactory.containsSingleton("rewardRuleEngine"));
+		assertTrue(beanFactory.containsSingleton("transactionStore"));
+		assertTrue(beanFactory.containsSingleton("rewardReportJobService"));
+		assertFalse(beanFactory.containsSingleton("rewardController"));
+	}
+
+}
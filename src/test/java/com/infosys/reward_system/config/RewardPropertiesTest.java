@@ -0,0 +1,38 @@
+package com.infosys.reward_system.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.validation.BindValidationException;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+
+class RewardPropertiesTest {
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(Config.class);
+
+	@Test
+	void testChunkSize_Bound() {
+		contextRunner.withPropertyValues("reward.bulk.chunk-size=500")
+				.run(context -> assertEquals(500, context.getBean(RewardProperties.class).getBulk().getChunkSize()));
+	}
+
+	@Test
+	void testNonPositiveChunkSize_Rejected() {
+		for (String chunkSize : new String[] { "0", "-1" }) {
+			contextRunner.withPropertyValues("reward.bulk.chunk-size=" + chunkSize).run(context -> {
+				assertNotNull(context.getStartupFailure());
+				Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+				assertTrue(cause instanceof BindValidationException);
+				assertTrue(cause.getMessage().contains("bulk.chunkSize"), cause.getMessage());
+			});
+		}
+	}
+
+	@EnableConfigurationProperties(RewardProperties.class)
+	static class Config {
+	}
+}
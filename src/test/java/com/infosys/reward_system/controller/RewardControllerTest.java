@@ -2,29 +2,48 @@ package com.infosys.reward_system.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.reward_system.dto.RewardBatchDto;
+import com.infosys.reward_system.dto.RewardLeaderDto;
+import com.infosys.reward_system.dto.RewardPageDto;
 import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.dto.RewardView;
 import com.infosys.reward_system.exception.GlobalExceptionHandler;
 import com.infosys.reward_system.service.RewardService;
 
@@ -34,6 +53,9 @@ public class RewardControllerTest {
 	@Mock
 	private RewardService rewardService;
 
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
 	@InjectMocks
 	private RewardController rewardController;
 
@@ -53,7 +75,8 @@ public class RewardControllerTest {
 		List<RewardResponseDto> mockResponse = Collections.singletonList(
 				new RewardResponseDto(1, "John Doe", 150, Collections.emptyMap(), Collections.emptyList()));
 
-		when(rewardService.calculateAllCustomerRewards(startDate, endDate)).thenReturn(mockResponse);
+		when(rewardService.calculateAllCustomerRewards(startDate, endDate))
+				.thenReturn(new RewardBatchDto(mockResponse, Collections.emptyList(), Collections.emptyList()));
 
 		mockMvc.perform(get("/api/rewards").param("startDate", "2024-01-01").param("endDate", "2025-12-30")
 				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
@@ -94,6 +117,42 @@ public class RewardControllerTest {
 		verify(rewardService, times(1)).calculateCustomerRewards(customerId, startDate, endDate);
 	}
 
+	@Test
+	void testGetCustomerRewards_NotModified() throws Exception {
+		when(rewardService.getCustomerRewardsVersion(1, null, null)).thenReturn("12-340");
+
+		mockMvc.perform(get("/api/rewards/1").header("If-None-Match", "W/\"12-340\""))
+				.andExpect(status().isNotModified()).andExpect(header().string("ETag", "W/\"12-340\""))
+				.andExpect(header().string("Cache-Control", "no-cache, private"))
+				.andExpect(content().string(""));
+
+		verify(rewardService, never()).calculateCustomerRewards(anyInt(), any(), any());
+	}
+
+	@Test
+	void testGetAllCustomerRewards_ChangedVersionIsRecalculated() throws Exception {
+		when(rewardService.getAllCustomerRewardsVersion()).thenReturn("13-341");
+		when(rewardService.calculateAllCustomerRewards(null, null)).thenReturn(
+				new RewardBatchDto(Collections.emptyList(), Collections.emptyList(), Collections.emptyList()));
+
+		mockMvc.perform(get("/api/rewards").header("If-None-Match", "W/\"12-340\"")).andExpect(status().isOk())
+				.andExpect(header().string("ETag", "W/\"13-341\""))
+				.andExpect(header().string("Cache-Control", "no-cache, private"))
+				.andExpect(header().doesNotExist(RewardController.FAILED_CUSTOMERS_HEADER));
+	}
+
+	@Test
+	void testGetAllCustomerRewards_ListsFailedCustomers() throws Exception {
+		when(rewardService.calculateAllCustomerRewards(null, null)).thenReturn(new RewardBatchDto(
+				Collections.singletonList(new RewardResponseDto(1, "John Doe", 150, Collections.emptyMap(), null)),
+				Collections.emptyList(), Arrays.asList(2, 3)));
+
+		mockMvc.perform(get("/api/rewards")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.size()").value(1)).andExpect(jsonPath("$[0].customerId").value(1))
+				.andExpect(header().string(RewardController.FAILED_CUSTOMERS_HEADER, "2,3"))
+				.andExpect(header().string("Cache-Control", "no-store"));
+	}
+
 	@Test
 	void testGetCustomerRewards_InvalidDateRange() throws Exception {
 		mockMvc.perform(get("/api/rewards/1").param("startDate", "2024-03-31").param("endDate", "2024-01-01"))
@@ -102,4 +161,142 @@ public class RewardControllerTest {
 		verify(rewardService, never()).calculateCustomerRewards(anyInt(), any(), any());
 	}
 
+	@Test
+	void testGetCustomerRewards_SummaryView() throws Exception {
+		RewardResponseDto mockResponse = new RewardResponseDto(1, "John Doe", 150, Collections.emptyMap(), null);
+
+		when(rewardService.calculateCustomerRewardSummary(1, null, null)).thenReturn(mockResponse);
+
+		mockMvc.perform(get("/api/rewards/1").param("view", "SUMMARY").contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.totalRewardPoints").value(150))
+				.andExpect(jsonPath("$.transactions").doesNotExist());
+
+		verify(rewardService, never()).calculateCustomerRewards(anyInt(), any(), any());
+	}
+
+	@Test
+	void testGetAllCustomerRewards_InvalidView() throws Exception {
+		mockMvc.perform(get("/api/rewards").param("view", "detailed")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid value 'detailed' for parameter 'view'"));
+
+		verify(rewardService, never()).calculateAllCustomerRewardSummaries(any(), any());
+	}
+
+	@Test
+	void testGetCustomerRewardsBatch_ListsNotFoundCustomers() throws Exception {
+		when(rewardService.calculateCustomerRewardsBatch(Arrays.asList(1, 99), null, null, RewardView.SUMMARY))
+				.thenReturn(new RewardBatchDto(
+						Collections.singletonList(
+								new RewardResponseDto(1, "John Doe", 150, Collections.emptyMap(), null)),
+						Collections.singletonList(99), Collections.emptyList()));
+
+		mockMvc.perform(post("/api/rewards/batch").param("view", "SUMMARY").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"customerIds\":[1,99]}")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.rewards[0].customerId").value(1))
+				.andExpect(jsonPath("$.rewards[0].transactions").doesNotExist())
+				.andExpect(jsonPath("$.notFoundCustomerIds[0]").value(99));
+	}
+
+	@Test
+	void testGetCustomerRewardsBatch_InvalidBatchSize() throws Exception {
+		String tooMany = IntStream.rangeClosed(1, RewardController.MAX_BATCH_SIZE + 1).mapToObj(String::valueOf)
+				.collect(Collectors.joining(",", "{\"customerIds\":[", "]}"));
+
+		mockMvc.perform(post("/api/rewards/batch").contentType(MediaType.APPLICATION_JSON).content(tooMany))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.message")
+						.value("Invalid batch: 1001 customer ids, must be between 1 and 1000"));
+		mockMvc.perform(post("/api/rewards/batch").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(
+				post("/api/rewards/batch").contentType(MediaType.APPLICATION_JSON).content("{\"customerIds\":"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.message").value("Malformed request body"));
+
+		verify(rewardService, never()).calculateCustomerRewardsBatch(any(), any(), any(), any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testExportAllCustomerRewards_WritesOneLinePerCustomer() throws Exception {
+		doAnswer(invocation -> {
+			Consumer<RewardResponseDto> sink = invocation.getArgument(3);
+			sink.accept(new RewardResponseDto(1, "John Doe", 150, Collections.emptyMap(), Collections.emptyList()));
+			sink.accept(new RewardResponseDto(2, "Jane Roe", 40, Collections.emptyMap(), Collections.emptyList()));
+			return null;
+		}).when(rewardService).streamAllCustomerRewards(isNull(), isNull(), eq(RewardView.FULL),
+				any(Consumer.class));
+
+		MvcResult result = mockMvc.perform(get("/api/rewards/export")).andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andExpect(content().string(
+						"{\"customerId\":1,\"customerName\":\"John Doe\",\"totalRewardPoints\":150,\"monthlyRewards\":{},\"transactions\":[]}\n"
+								+ "{\"customerId\":2,\"customerName\":\"Jane Roe\",\"totalRewardPoints\":40,\"monthlyRewards\":{},\"transactions\":[]}\n"));
+	}
+
+	@Test
+	void testExportAllCustomerRewards_InvalidDateRange() throws Exception {
+		mockMvc.perform(get("/api/rewards/export").param("startDate", "2024-03-31").param("endDate", "2024-01-01"))
+				.andExpect(status().isBadRequest());
+
+		verify(rewardService, never()).streamAllCustomerRewards(any(), any(), any(), any());
+	}
+
+	@Test
+	void testGetTopCustomers_ValidRequest() throws Exception {
+		when(rewardService.findTopCustomers(2, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31))).thenReturn(
+				Arrays.asList(new RewardLeaderDto(102, "Jane", 90), new RewardLeaderDto(103, "Bob", 90)));
+
+		mockMvc.perform(get("/api/rewards/top").param("n", "2").param("startDate", "2024-01-01").param("endDate",
+				"2024-03-31")).andExpect(status().isOk()).andExpect(jsonPath("$.size()").value(2))
+				.andExpect(jsonPath("$[0].customerId").value(102))
+				.andExpect(jsonPath("$[1].totalRewardPoints").value(90));
+		mockMvc.perform(get("/api/rewards/top")).andExpect(status().isOk());
+
+		verify(rewardService).findTopCustomers(RewardController.DEFAULT_LEADERBOARD_SIZE, null, null);
+	}
+
+	@Test
+	void testGetTopCustomers_InvalidSize() throws Exception {
+		mockMvc.perform(get("/api/rewards/top").param("n", "0")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid n: 0 must be between 1 and 1000"));
+		mockMvc.perform(get("/api/rewards/top").param("n", "1001")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/rewards/top").param("startDate", "2024-03-01").param("endDate", "2024-01-01"))
+				.andExpect(status().isBadRequest());
+
+		verify(rewardService, never()).findTopCustomers(anyInt(), any(), any());
+	}
+
+	@Test
+	void testGetAllCustomerRewards_KeysetPage() throws Exception {
+		RewardPageDto page = new RewardPageDto(Collections.singletonList(
+				new RewardResponseDto(7, "John Doe", 150, Collections.emptyMap(), Collections.emptyList())), 7);
+
+		when(rewardService.calculateCustomerRewardsPage(5, 1, null, null, RewardView.FULL)).thenReturn(page);
+
+		mockMvc.perform(get("/api/rewards").param("limit", "1").param("afterCustomerId", "5"))
+				.andExpect(status().isOk()).andExpect(header().string(RewardController.NEXT_CURSOR_HEADER, "7"))
+				.andExpect(jsonPath("$.size()").value(1)).andExpect(jsonPath("$[0].customerId").value(7));
+
+		verify(rewardService, never()).calculateAllCustomerRewards(any(), any());
+	}
+
+	@Test
+	void testGetAllCustomerRewards_LastPageHasNoCursor() throws Exception {
+		when(rewardService.calculateCustomerRewardsPage(eq(3), eq(RewardController.DEFAULT_PAGE_SIZE), any(), any(),
+				eq(RewardView.FULL))).thenReturn(new RewardPageDto(Collections.emptyList(), null));
+
+		mockMvc.perform(get("/api/rewards").param("afterCustomerId", "3")).andExpect(status().isOk())
+				.andExpect(header().doesNotExist(RewardController.NEXT_CURSOR_HEADER));
+	}
+
+	@Test
+	void testGetAllCustomerRewards_InvalidLimit() throws Exception {
+		mockMvc.perform(get("/api/rewards").param("limit", "0")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid limit: 0 must be between 1 and 1000"));
+
+		verify(rewardService, never()).calculateCustomerRewardsPage(anyInt(), anyInt(), any(), any(), any());
+	}
+
 }
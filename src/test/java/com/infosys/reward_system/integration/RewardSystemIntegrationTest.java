@@ -1,21 +1,65 @@
 package com.infosys.reward_system.integration;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jayway.jsonpath.JsonPath;
+
+import com.infosys.reward_system.dto.BulkIngestResultDto;
+import com.infosys.reward_system.model.RewardPromotion;
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.RewardPromotionRepository;
+import com.infosys.reward_system.service.BulkTransactionService;
+import com.infosys.reward_system.service.RewardRuleEngine;
+import com.infosys.reward_system.service.TransactionService;
 
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc(addFilters = false)
+@AutoConfigureMetrics
 @TestPropertySource(properties = "spring.sql.init.mode=always")
 @Slf4j
 class RewardSystemIntegrationTest {
@@ -23,6 +67,24 @@ class RewardSystemIntegrationTest {
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private BulkTransactionService bulkTransactionService;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private RewardPromotionRepository rewardPromotionRepository;
+
+	@Autowired
+	private RewardRuleEngine rewardRuleEngine;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	/**
 	 * Test case: Fetching rewards with an invalid date range
 	 */
@@ -58,4 +120,348 @@ class RewardSystemIntegrationTest {
 				.andExpect(jsonPath("$.message").value("Customer with ID 999 not found.")).andReturn();
 	}
 
+	/**
+	 * Test case: Fetching rewards for all customers in a single pass
+	 */
+	@Test
+	void testGetRewardsForAllCustomers() throws Exception {
+		mockMvc.perform(get("/api/rewards").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.size()").value(3)).andExpect(jsonPath("$[0].customerId").value(1))
+				.andExpect(jsonPath("$[0].totalRewardPoints").value(645))
+				.andExpect(jsonPath("$[1].totalRewardPoints").value(630))
+				.andExpect(jsonPath("$[2].totalRewardPoints").value(618))
+				.andExpect(jsonPath("$[2].transactions.size()").value(12));
+	}
+
+	/**
+	 * Test case: Summary view aggregated by the database matches the full view
+	 */
+	@Test
+	void testGetRewardSummaryForExistingCustomer() throws Exception {
+		mockMvc.perform(get("/api/rewards/{customerId}", 1).param("view", "summary")
+				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.customerName").value("Saurabh"))
+				.andExpect(jsonPath("$.totalRewardPoints").value(645))
+				.andExpect(jsonPath("$.monthlyRewards['2024-11']").value(160))
+				.andExpect(jsonPath("$.monthlyRewards['2024-12']").value(330))
+				.andExpect(jsonPath("$.monthlyRewards['2025-01']").value(155))
+				.andExpect(jsonPath("$.transactions").doesNotExist());
+	}
+
+	/**
+	 * Test case: Summary view for all customers within a date range
+	 */
+	@Test
+	void testGetRewardSummariesForAllCustomers() throws Exception {
+		mockMvc.perform(get("/api/rewards").param("view", "summary").param("startDate", "2024-11-15")
+				.param("endDate", "2024-12-15").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.size()").value(3)).andExpect(jsonPath("$[0].totalRewardPoints").value(215))
+				.andExpect(jsonPath("$[1].totalRewardPoints").value(210))
+				.andExpect(jsonPath("$[2].totalRewardPoints").value(215))
+				.andExpect(jsonPath("$[2].monthlyRewards['2024-11']").value(105));
+	}
+
+	/**
+	 * Test case: Streaming export writes one JSON line per customer
+	 */
+	@Test
+	void testExportRewardsForAllCustomers() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/rewards/export").param("startDate", "2024-11-15")
+				.param("endDate", "2024-12-15")).andExpect(request().asyncStarted()).andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("{\"customerId\":1,\"customerName\":\"Saurabh\",\"totalRewardPoints\":215"));
+		assertTrue(lines[2].startsWith("{\"customerId\":3,"));
+
+		result = mockMvc.perform(get("/api/rewards/export").param("view", "summary"))
+				.andExpect(request().asyncStarted()).andReturn();
+		body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+		assertFalse(body.contains("\"transactions\""));
+		assertTrue(body.startsWith("{\"customerId\":1,\"customerName\":\"Saurabh\","));
+	}
+
+	/**
+	 * Test case: A saved transaction is reflected in the ledger-backed summary
+	 */
+	@Test
+	@Transactional
+	void testSavedTransactionUpdatesMonthlyLedger() throws Exception {
+		transactionService.saveTransaction(Transaction.builder().customerId(1).customerName("Saurabh")
+				.amount(new BigDecimal("150.00")).transactionDate(LocalDate.of(2024, 12, 31)).build());
+
+		mockMvc.perform(get("/api/rewards/{customerId}", 1).param("view", "summary").param("startDate", "2024-12-01")
+				.param("endDate", "2024-12-31")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalRewardPoints").value(330 + 150))
+				.andExpect(jsonPath("$.monthlyRewards['2024-12']").value(330 + 150));
+	}
+
+	/**
+	 * Test case: Concurrent first transactions of a customer month all land in
+	 * one ledger row
+	 */
+	@Test
+	void testConcurrentFirstTransactionsOfAMonthShareOneLedgerRow() throws Exception {
+		int writers = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(writers);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Transaction>> saves = new ArrayList<>();
+			for (int i = 0; i < writers; i++) {
+				saves.add(executor.submit(() -> {
+					start.await();
+					return transactionService.saveTransaction(Transaction.builder().customerId(9002)
+							.customerName("Racer").amount(new BigDecimal("120.00"))
+							.transactionDate(LocalDate.of(2031, 1, 15)).build());
+				}));
+			}
+			start.countDown();
+			for (Future<Transaction> save : saves) {
+				save.get(30, TimeUnit.SECONDS);
+			}
+
+			Map<String, Object> ledger = jdbcTemplate.queryForMap(
+					"SELECT points, txn_count FROM customer_monthly_rewards WHERE customer_id = 9002");
+			assertEquals(writers * 90, ((Number) ledger.get("POINTS")).intValue());
+			assertEquals(writers, ((Number) ledger.get("TXN_COUNT")).intValue());
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(30, TimeUnit.SECONDS);
+			jdbcTemplate.update("DELETE FROM transactions WHERE customer_id = 9002");
+			jdbcTemplate.update("DELETE FROM customer_monthly_rewards WHERE customer_id = 9002");
+		}
+	}
+
+	/**
+	 * Test case: Concurrent uploads that create the same customer months all
+	 * land in one ledger row per month
+	 */
+	@Test
+	void testConcurrentUploadsOfNewMonthsShareTheirLedgerRows() throws Exception {
+		int uploads = 8;
+		String csv = "9003,Uploader,120.00,2031-01-15\n" + "9003,Uploader,120.00,2031-02-15\n"
+				+ "9004,Other Uploader,75.00,2031-01-20\n";
+		ExecutorService executor = Executors.newFixedThreadPool(uploads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<BulkIngestResultDto>> results = new ArrayList<>();
+			for (int i = 0; i < uploads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return bulkTransactionService.ingest(
+							new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+							BulkTransactionService.Format.CSV);
+				}));
+			}
+			start.countDown();
+			for (Future<BulkIngestResultDto> result : results) {
+				assertEquals(3, result.get(30, TimeUnit.SECONDS).getAcceptedRows());
+			}
+
+			String ledger = "SELECT points, txn_count FROM customer_monthly_rewards "
+					+ "WHERE customer_id = ? AND yyyy_mm = ?";
+			for (Object[] month : new Object[][] { { 9003, "2031-01", 90 }, { 9003, "2031-02", 90 },
+					{ 9004, "2031-01", 25 } }) {
+				Map<String, Object> row = jdbcTemplate.queryForMap(ledger, month[0], month[1]);
+				assertEquals(uploads * (int) month[2], ((Number) row.get("POINTS")).intValue());
+				assertEquals(uploads, ((Number) row.get("TXN_COUNT")).intValue());
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(30, TimeUnit.SECONDS);
+			jdbcTemplate.update("DELETE FROM transactions WHERE customer_id IN (9003, 9004)");
+			jdbcTemplate.update("DELETE FROM customer_monthly_rewards WHERE customer_id IN (9003, 9004)");
+		}
+	}
+
+	/**
+	 * Test case: Repeated customer lookups are served from the cache and counted
+	 */
+	@Test
+	void testRepeatedCustomerLookupIsCached() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(get("/api/rewards/{customerId}", 2).param("startDate", "2024-10-01")
+					.param("endDate", "2024-12-31")).andExpect(status().isOk())
+					.andExpect(jsonPath("$.totalRewardPoints").value(505));
+		}
+
+		mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:customerRewards")
+				.param("tag", "result:hit")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+	}
+
+	/**
+	 * Test case: Unchanged rewards are revalidated with a 304 and sent compressed
+	 */
+	@Test
+	void testConditionalAndCompressedRewards() throws Exception {
+		String eTag = mockMvc.perform(get("/api/rewards/{customerId}", 3)).andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-cache, private")).andReturn().getResponse()
+				.getHeader("ETag");
+
+		mockMvc.perform(get("/api/rewards/{customerId}", 3).header("If-None-Match", eTag))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+		mockMvc.perform(get("/api/rewards/{customerId}", 3).param("startDate", "2024-11-15")
+				.param("endDate", "2024-12-15").header("If-None-Match", eTag)).andExpect(status().isOk());
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		ResponseEntity<byte[]> compressed = restTemplate.exchange("/api/rewards", HttpMethod.GET,
+				new HttpEntity<>(headers), byte[].class);
+		assertEquals(HttpStatus.OK, compressed.getStatusCode());
+		assertEquals("gzip", compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	/**
+	 * Test case: A promotion added to the rule tables is picked up by every view
+	 */
+	@Test
+	void testReloadedPromotionAppliesToAllViews() throws Exception {
+		RewardPromotion december = rewardPromotionRepository.save(RewardPromotion.builder()
+				.startDate(LocalDate.of(2024, 12, 1)).endDate(LocalDate.of(2024, 12, 31)).multiplierPercent(200)
+				.build());
+		try {
+			assertTrue(rewardRuleEngine.reload());
+
+			mockMvc.perform(get("/api/rewards/{customerId}", 2)).andExpect(status().isOk())
+					.andExpect(jsonPath("$.monthlyRewards['2024-12']").value(2 * 315));
+			mockMvc.perform(get("/api/rewards/{customerId}", 2).param("view", "summary")
+					.param("startDate", "2024-12-01").param("endDate", "2024-12-31")).andExpect(status().isOk())
+					.andExpect(jsonPath("$.totalRewardPoints").value(2 * 315));
+			mockMvc.perform(get("/api/rewards/{customerId}", 2).param("view", "summary")
+					.param("startDate", "2024-12-03").param("endDate", "2025-01-10")).andExpect(status().isOk())
+					.andExpect(jsonPath("$.monthlyRewards['2024-12']").value(2 * (60 + 15 + 240)));
+		} finally {
+			rewardPromotionRepository.delete(december);
+			rewardRuleEngine.reload();
+		}
+
+		mockMvc.perform(get("/api/rewards/{customerId}", 2).param("view", "summary")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.monthlyRewards['2024-12']").value(315));
+	}
+
+	/**
+	 * Test case: A restart under the rules the ledger was built with keeps it
+	 */
+	@Test
+	void testStartupRebuildsTheLedgerOnlyForOtherRules() {
+		String ledgerPoints = "SELECT points FROM customer_monthly_rewards"
+				+ " WHERE customer_id = 1 AND yyyy_mm = '2024-11'";
+		int points = jdbcTemplate.queryForObject(ledgerPoints, Integer.class);
+		jdbcTemplate.update("UPDATE customer_monthly_rewards SET points = points + 1000 WHERE customer_id = 1");
+		try {
+			rewardRuleEngine.afterPropertiesSet();
+			assertEquals(points + 1000, jdbcTemplate.queryForObject(ledgerPoints, Integer.class));
+
+			jdbcTemplate.update("UPDATE reward_ledger_rules SET rules_version = 'other'");
+			rewardRuleEngine.afterPropertiesSet();
+			assertEquals(points, jdbcTemplate.queryForObject(ledgerPoints, Integer.class));
+		} finally {
+			jdbcTemplate.update("DELETE FROM reward_ledger_rules");
+			rewardRuleEngine.afterPropertiesSet();
+		}
+	}
+
+	/**
+	 * Test case: Walking all customers with keyset pages
+	 */
+	@Test
+	void testGetRewardsInKeysetPages() throws Exception {
+		mockMvc.perform(get("/api/rewards").param("limit", "2").param("view", "summary")).andExpect(status().isOk())
+				.andExpect(header().string("X-Next-Cursor", "2")).andExpect(jsonPath("$.size()").value(2))
+				.andExpect(jsonPath("$[1].customerId").value(2))
+				.andExpect(jsonPath("$[1].totalRewardPoints").value(630))
+				.andExpect(jsonPath("$[1].transactions").doesNotExist());
+
+		mockMvc.perform(get("/api/rewards").param("limit", "2").param("afterCustomerId", "2")
+				.param("startDate", "2024-11-15").param("endDate", "2024-12-15")).andExpect(status().isOk())
+				.andExpect(header().doesNotExist("X-Next-Cursor")).andExpect(jsonPath("$.size()").value(1))
+				.andExpect(jsonPath("$[0].customerId").value(3))
+				.andExpect(jsonPath("$[0].totalRewardPoints").value(215))
+				.andExpect(jsonPath("$[0].transactions.size()").value(4));
+	}
+
+	/**
+	 * Test case: A batch lookup returns the known customers in request order and
+	 * lists the unknown ones
+	 */
+	@Test
+	void testGetRewardsForBatchOfCustomers() throws Exception {
+		mockMvc.perform(post("/api/rewards/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"customerIds\":[3,424242,1,3],"
+						+ "\"startDate\":\"2024-11-15\",\"endDate\":\"2024-12-15\"}"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.rewards.size()").value(2))
+				.andExpect(jsonPath("$.rewards[0].customerId").value(3))
+				.andExpect(jsonPath("$.rewards[0].totalRewardPoints").value(215))
+				.andExpect(jsonPath("$.rewards[0].transactions.size()").value(4))
+				.andExpect(jsonPath("$.rewards[1].customerId").value(1))
+				.andExpect(jsonPath("$.notFoundCustomerIds[0]").value(424242));
+
+		mockMvc.perform(post("/api/rewards/batch").param("view", "summary").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"customerIds\":[]}")).andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Test case: A bulk CSV upload is loaded, counted and reflected in the rewards
+	 */
+	@Test
+	@Transactional
+	void testBulkCsvUploadLoadsTransactions() throws Exception {
+		mockMvc.perform(post("/api/transactions/bulk").contentType("text/csv")
+				.content("customerId,customerName,amount,transactionDate\n" + "9001,Bulk Buyer,120.00,2025-02-03\n"
+						+ "9001,Bulk Buyer,not-a-number,2025-02-04\n" + "9001,Bulk Buyer,80.00,2025-03-01\n"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.acceptedRows").value(2))
+				.andExpect(jsonPath("$.rejectedRows").value(1)).andExpect(jsonPath("$.rejections[0].line").value(3));
+
+		mockMvc.perform(get("/api/rewards/{customerId}", 9001)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalRewardPoints").value(90 + 30))
+				.andExpect(jsonPath("$.transactions.size()").value(2));
+		mockMvc.perform(get("/api/rewards/{customerId}", 9001).param("view", "summary")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.monthlyRewards['2025-02']").value(90))
+				.andExpect(jsonPath("$.monthlyRewards['2025-03']").value(30));
+	}
+
+	/**
+	 * Test case: An asynchronous report is accepted, polled until done and served
+	 */
+	@Test
+	void testRewardReportJob() throws Exception {
+		MvcResult submitted = mockMvc.perform(post("/api/rewards/jobs")).andExpect(status().isAccepted())
+				.andExpect(header().exists("Location")).andExpect(jsonPath("$.jobId").exists()).andReturn();
+		String location = submitted.getResponse().getHeader("Location");
+
+		String status = null;
+		for (int i = 0; i < 100 && !"SUCCEEDED".equals(status); i++) {
+			Thread.sleep(50);
+			status = JsonPath.read(mockMvc.perform(get(location)).andExpect(status().isOk()).andReturn().getResponse()
+					.getContentAsString(), "$.status");
+		}
+		assertEquals("SUCCEEDED", status);
+
+		mockMvc.perform(get(location)).andExpect(jsonPath("$.customersDone").value(3))
+				.andExpect(jsonPath("$.customersTotal").value(3));
+		mockMvc.perform(get(location + "/result")).andExpect(status().isOk()).andExpect(jsonPath("$.size()").value(3))
+				.andExpect(jsonPath("$[0].totalRewardPoints").value(645));
+		mockMvc.perform(get("/api/rewards/jobs/{jobId}", "unknown")).andExpect(status().isNotFound());
+	}
+
+	/**
+	 * Test case: Reward and endpoint meters are published for Prometheus
+	 */
+	@Test
+	void testRewardMetricsArePublished() throws Exception {
+		mockMvc.perform(get("/api/rewards")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/rewards/{customerId}", 998)).andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+				.andExpect(content().string(containsString("reward_calculation_seconds_count{")))
+				.andExpect(content().string(containsString("reward_repository_rows_count{")))
+				.andExpect(content().string(containsString("reward_customer_not_found_total{")))
+				.andExpect(content().string(containsString("reward_json_serialization_seconds_count{")));
+	}
+
 }
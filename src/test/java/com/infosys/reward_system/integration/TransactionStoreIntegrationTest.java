@@ -0,0 +1,118 @@
+package com.infosys.reward_system.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.TransactionRepository;
+import com.infosys.reward_system.service.TransactionService;
+import com.infosys.reward_system.service.TransactionStore;
+
+/**
+ * The reward endpoints served from the in-memory transaction store, checked
+ * against the monthly rewards ledger, which is still read from the database,
+ * and against the points index for ranges that do not follow month bounds.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = { "spring.sql.init.mode=always", "reward.store.enabled=true",
+		"reward.points-index.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:rewardstoredb;DB_CLOSE_ON_EXIT=FALSE" })
+class TransactionStoreIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TransactionStore transactionStore;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Test
+	void testStoreRewardsMatchTheLedger() throws Exception {
+		assertEquals(transactionRepository.count(), transactionStore.getSnapshot().getTransactionCount());
+
+		String rewards = mockMvc.perform(get("/api/rewards")).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+		String summaries = mockMvc.perform(get("/api/rewards").param("view", "summary")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		List<Integer> totals = JsonPath.read(rewards, "$[*].totalRewardPoints");
+		assertEquals(JsonPath.<List<Integer>>read(summaries, "$[*].customerId"),
+				JsonPath.<List<Integer>>read(rewards, "$[*].customerId"));
+		assertEquals(JsonPath.<List<Integer>>read(summaries, "$[*].totalRewardPoints"), totals);
+	}
+
+	@Test
+	void testPointsIndexSummariesMatchTheStore() throws Exception {
+		String rewards = mockMvc.perform(get("/api/rewards").param("startDate", "2024-11-05")
+				.param("endDate", "2025-01-20")).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+		String summaries = mockMvc.perform(get("/api/rewards").param("startDate", "2024-11-05")
+				.param("endDate", "2025-01-20").param("view", "summary")).andExpect(status().isOk()).andReturn()
+				.getResponse().getContentAsString();
+
+		assertEquals(JsonPath.<List<Integer>>read(rewards, "$[*].customerId"),
+				JsonPath.<List<Integer>>read(summaries, "$[*].customerId"));
+		assertEquals(JsonPath.<List<Integer>>read(rewards, "$[*].totalRewardPoints"),
+				JsonPath.<List<Integer>>read(summaries, "$[*].totalRewardPoints"));
+	}
+
+	@Test
+	void testTopCustomersMatchTheSummaries() throws Exception {
+		String summaries = mockMvc.perform(get("/api/rewards").param("startDate", "2024-11-05")
+				.param("endDate", "2025-01-20").param("view", "summary")).andExpect(status().isOk()).andReturn()
+				.getResponse().getContentAsString();
+		String top = mockMvc.perform(get("/api/rewards/top").param("n", "3").param("startDate", "2024-11-05")
+				.param("endDate", "2025-01-20")).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+
+		List<Integer> totals = JsonPath.read(summaries, "$[*].totalRewardPoints");
+		totals.sort(Collections.reverseOrder());
+		assertEquals(totals.subList(0, 3), JsonPath.<List<Integer>>read(top, "$[*].totalRewardPoints"));
+	}
+
+	@Test
+	void testSavedTransactionIsServedFromTheStore() throws Exception {
+		mockMvc.perform(get("/api/rewards/{customerId}", 999)).andExpect(status().isNotFound());
+
+		transactionService.saveTransaction(Transaction.builder().customerId(999).customerName("New Customer")
+				.amount(new BigDecimal("150.00")).transactionDate(LocalDate.of(2025, 1, 15)).build());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (transactionStore.getSnapshot().getTransactionCount() < transactionRepository.count()
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10); // the store picks up single saves in the background
+		}
+
+		mockMvc.perform(get("/api/rewards/{customerId}", 999).param("startDate", "2025-01-01")
+				.param("endDate", "2025-01-20")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.customerName").value("New Customer"))
+				.andExpect(jsonPath("$.totalRewardPoints").value(150))
+				.andExpect(jsonPath("$.transactions[0].transactionAmount").value(150.0));
+		mockMvc.perform(get("/api/rewards/{customerId}", 999).param("startDate", "2025-01-02")
+				.param("endDate", "2025-01-20").param("view", "summary")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalRewardPoints").value(150));
+		assertEquals(transactionRepository.count(), transactionStore.getSnapshot().getTransactionCount());
+	}
+}
@@ -0,0 +1,208 @@
+package com.infosys.reward_system.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.infosys.reward_system.dto.BulkIngestResultDto;
+import com.infosys.reward_system.service.BulkTransactionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local load test of the reward endpoints under the {@code prod} profile,
+ * against generated data in H2: every scenario is warmed up, then driven by
+ * concurrent clients, and its latency percentiles and Hikari connection waits
+ * are logged. Excluded from the default build; run with
+ * {@code mvn -Pload-test test [-Dload.threads=16 -Dload.requests=2000 ...]}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("prod")
+@TestPropertySource(properties = "spring.sql.init.mode=always")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class RewardLoadTest {
+	private static final int FIRST_CUSTOMER_ID = 100_000;
+
+	private final int customers = Integer.getInteger("load.customers", 2000);
+	private final int transactionsPerCustomer = Integer.getInteger("load.transactions-per-customer", 50);
+	private final int threads = Integer.getInteger("load.threads", 16);
+	private final int requests = Integer.getInteger("load.requests", 2000);
+	private final int warmupRequests = Integer.getInteger("load.warmup-requests", 500);
+	private final int batchSize = Integer.getInteger("load.batch-size", 200);
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private BulkTransactionService bulkTransactionService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	void generateTransactions() throws Exception {
+		Random random = new Random(42);
+		StringBuilder csv = new StringBuilder("customerId,customerName,amount,transactionDate\n");
+		for (int customer = 0; customer < customers; customer++) {
+			for (int i = 0; i < transactionsPerCustomer; i++) {
+				csv.append(FIRST_CUSTOMER_ID + customer).append(",Customer ").append(customer).append(',')
+						.append(random.nextInt(300)).append('.').append(random.nextInt(90) + 10).append(',')
+						.append(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365))).append('\n');
+			}
+		}
+		BulkIngestResultDto result = bulkTransactionService.ingest(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+				BulkTransactionService.Format.CSV);
+		assertEquals(customers * transactionsPerCustomer, result.getAcceptedRows());
+		log.info("Load test data: {} customers, {} transactions", customers, result.getAcceptedRows());
+	}
+
+	@Test
+	void customerRewards() throws Exception {
+		run("customer", random -> restTemplate.getForEntity("/api/rewards/{customerId}", byte[].class,
+				randomCustomerId(random)));
+	}
+
+	@Test
+	void customerRewardSummaries() throws Exception {
+		run("customer summary", random -> restTemplate.getForEntity("/api/rewards/{customerId}?view=summary",
+				byte[].class, randomCustomerId(random)));
+	}
+
+	@Test
+	void rewardPages() throws Exception {
+		run("page of 100", random -> restTemplate.getForEntity("/api/rewards?limit=100&afterCustomerId={after}",
+				byte[].class, randomCustomerId(random)));
+	}
+
+	@Test
+	void rewardDateRange() throws Exception {
+		run("customer date range", random -> restTemplate.getForEntity(
+				"/api/rewards/{customerId}?startDate=2024-03-10&endDate=2024-08-20", byte[].class,
+				randomCustomerId(random)));
+	}
+
+	@Test
+	void batchRewardSummaries() throws Exception {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		run("batch of " + batchSize, random -> {
+			String customerIds = random.ints(batchSize, FIRST_CUSTOMER_ID, FIRST_CUSTOMER_ID + customers)
+					.mapToObj(String::valueOf).collect(Collectors.joining(","));
+			return restTemplate.postForEntity("/api/rewards/batch?view=summary",
+					new HttpEntity<>("{\"customerIds\":[" + customerIds + "]}", headers), byte[].class);
+		});
+	}
+
+	private int randomCustomerId(Random random) {
+		return FIRST_CUSTOMER_ID + random.nextInt(customers);
+	}
+
+	/**
+	 * Sends the warm-up requests, then the measured ones from {@code threads}
+	 * concurrent clients, logs the results and fails on any non-2xx response.
+	 */
+	private void run(String scenario, Function<Random, ResponseEntity<byte[]>> request) throws Exception {
+		drive(request, warmupRequests);
+
+		Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+		long acquiresBefore = acquire == null ? 0 : acquire.count();
+		double acquireNanosBefore = acquire == null ? 0 : acquire.totalTime(TimeUnit.NANOSECONDS);
+
+		long startedAt = System.nanoTime();
+		long[] latencies = new long[requests];
+		int errors = drive(request, latencies);
+		double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+		Arrays.sort(latencies);
+		long acquires = acquire == null ? 0 : acquire.count() - acquiresBefore;
+		double acquireMeanMillis = acquires == 0 ? 0
+				: (acquire.totalTime(TimeUnit.NANOSECONDS) - acquireNanosBefore) / acquires / 1e6;
+		log.info(String.format(
+				"%-22s %6d requests, %d errors, %8.1f req/s | latency ms p50 %7.2f p99 %7.2f max %7.2f"
+						+ " | connection acquires %d, wait ms mean %.3f%s",
+				scenario, requests, errors, requests / elapsedSeconds, percentileMillis(latencies, 0.50),
+				percentileMillis(latencies, 0.99), latencies[latencies.length - 1] / 1e6, acquires,
+				acquireMeanMillis, acquire == null ? "" : acquirePercentiles(acquire)));
+
+		assertEquals(0, errors, scenario + " errors");
+	}
+
+	private void drive(Function<Random, ResponseEntity<byte[]>> request, int count) throws Exception {
+		drive(request, new long[count]);
+	}
+
+	private int drive(Function<Random, ResponseEntity<byte[]>> request, long[] latencies) throws Exception {
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		ExecutorService clients = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			clients.execute(() -> {
+				Random random = ThreadLocalRandom.current();
+				for (int i = next.getAndIncrement(); i < latencies.length; i = next.getAndIncrement()) {
+					long sentAt = System.nanoTime();
+					try {
+						if (!request.apply(random).getStatusCode().is2xxSuccessful()) {
+							errors.incrementAndGet();
+						}
+					} catch (RuntimeException e) {
+						errors.incrementAndGet();
+					}
+					latencies[i] = System.nanoTime() - sentAt;
+				}
+			});
+		}
+		clients.shutdown();
+		if (!clients.awaitTermination(10, TimeUnit.MINUTES)) {
+			clients.shutdownNow();
+			fail("Load clients did not finish within 10 minutes; unfilled latencies would skew the percentiles");
+		}
+		return errors.get();
+	}
+
+	private static double percentileMillis(long[] sortedNanos, double percentile) {
+		int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+		return sortedNanos[Math.max(index, 0)] / 1e6;
+	}
+
+	/** Recent connection wait percentiles, as published by the pool's timer. */
+	private static String acquirePercentiles(Timer acquire) {
+		StringBuilder percentiles = new StringBuilder();
+		for (ValueAtPercentile value : acquire.takeSnapshot().percentileValues()) {
+			percentiles.append(String.format(" p%.0f %.3f", value.percentile() * 100,
+					value.value(TimeUnit.MILLISECONDS)));
+		}
+		return percentiles.toString();
+	}
+}
@@ -0,0 +1,155 @@
+package com.infosys.reward_system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.infosys.reward_system.model.RewardPromotion;
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.repository.projection.TransactionRow;
+import com.infosys.reward_system.rules.RewardRules;
+
+/**
+ * Guards the query plans of the customer lookups: each one must be answered
+ * through the composite {@code (customer_id, transaction_date, amount)} index
+ * rather than a scan of the whole table.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.infosys.reward_system.repository.TransactionRepositoryTest$LastStatement")
+class TransactionRepositoryTest {
+
+	private static final String CUSTOMER_INDEX = "PUBLIC.IDX_TRANSACTIONS_CUSTOMER_DATE_AMOUNT";
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void testFindRowsByCustomerIdAndTransactionDateBetween() {
+		List<TransactionRow> transactions = transactionRepository.findRowsByCustomerIdAndTransactionDateBetween(1,
+				LocalDate.of(2024, 11, 15), LocalDate.of(2024, 12, 15));
+
+		assertEquals(5, transactions.size());
+		assertTrue(transactions.stream().allMatch(row -> row.getCustomerId() == 1 && row.getCustomerName() == null));
+	}
+
+	@Test
+	void testFindCustomerNames() {
+		assertEquals(1, transactionRepository.findCustomerNames(1, PageRequest.of(0, 1)).size());
+		assertTrue(transactionRepository.findCustomerNames(99, PageRequest.of(0, 1)).isEmpty());
+	}
+
+	@Test
+	void testFindDistinctCustomerIds() {
+		assertEquals(Arrays.asList(1, 2, 3), transactionRepository.findDistinctCustomerIds());
+	}
+
+	@Test
+	void testFindCustomerIdsAfter() {
+		assertEquals(Arrays.asList(2, 3), transactionRepository.findCustomerIdsAfter(1, PageRequest.of(0, 5)));
+		assertEquals(Arrays.asList(1),
+				transactionRepository.findCustomerIdsAfter(Integer.MIN_VALUE, PageRequest.of(0, 1)));
+	}
+
+	@Test
+	void testKeysetCustomerPageUsesCompositeIndex() {
+		transactionRepository.findCustomerIdsAfter(100, PageRequest.of(0, 101));
+		String plan = explainLastStatement(100, 101);
+
+		assertTrue(plan.contains(CUSTOMER_INDEX + ": CUSTOMER_ID > "), plan);
+		assertTrue(plan.contains("index sorted"), plan);
+	}
+
+	@Test
+	void testCustomerDateRangeLookupUsesCompositeIndex() {
+		LocalDate startDate = LocalDate.of(2024, 11, 15);
+		LocalDate endDate = LocalDate.of(2024, 12, 15);
+		transactionRepository.findRowsByCustomerIdAndTransactionDateBetween(1, startDate, endDate);
+		String plan = explainLastStatement(1, startDate, endDate);
+
+		assertTrue(plan.contains(CUSTOMER_INDEX + ": CUSTOMER_ID = "), plan);
+		assertTrue(plan.contains("TRANSACTION_DATE >= "), plan);
+	}
+
+	@Test
+	void testCustomerLookupUsesCompositeIndex() {
+		transactionRepository.findRowsByCustomerId(1);
+		String plan = explainLastStatement(1);
+
+		assertTrue(plan.contains(CUSTOMER_INDEX + ": CUSTOMER_ID = "), plan);
+	}
+
+	@Test
+	void testDistinctCustomerIdsUseCompositeIndex() {
+		transactionRepository.findDistinctCustomerIds();
+		String plan = explainLastStatement();
+
+		assertTrue(plan.contains(CUSTOMER_INDEX), plan);
+		assertTrue(plan.contains("index sorted"), plan);
+	}
+
+	@Test
+	void testMonthlyRewardAggregationUsesCompositeIndex() {
+		RewardPromotion december = new RewardPromotion(1, LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31), 200);
+		RewardRules rules = RewardRules.compile(Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2)),
+				Collections.singletonList(december));
+		String plan = explain(RewardAggregationRepository.monthlyRewardPointsSql(rules,
+				"WHERE t.customer_id = :customerId AND t.transaction_date BETWEEN :startDate AND :endDate"), true);
+
+		assertTrue(plan.contains(CUSTOMER_INDEX + ": CUSTOMER_ID = "), plan);
+	}
+
+	/**
+	 * Explains the SQL that Hibernate generated for the last repository call,
+	 * with {@code parameters} bound in the order of its placeholders.
+	 */
+	private String explainLastStatement(Object... parameters) {
+		Query query = entityManager.createNativeQuery("EXPLAIN " + LastStatement.sql());
+		for (int i = 0; i < parameters.length; i++) {
+			query.setParameter(i + 1, parameters[i]);
+		}
+		return String.valueOf(query.getSingleResult());
+	}
+
+	private String explain(String sql, boolean dateRange) {
+		Query query = entityManager.createNativeQuery("EXPLAIN " + sql).setParameter("customerId", 1);
+		if (dateRange) {
+			query.setParameter("startDate", LocalDate.of(2024, 11, 15)).setParameter("endDate",
+					LocalDate.of(2024, 12, 15));
+		}
+		return String.valueOf(query.getSingleResult());
+	}
+
+	/**
+	 * Records the statements Hibernate prepares, so that the plans above are
+	 * those of the repository's own queries rather than of hand-written copies.
+	 */
+	public static class LastStatement implements StatementInspector {
+		private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+		static String sql() {
+			return LAST_SQL.get();
+		}
+
+		@Override
+		public String inspect(String sql) {
+			LAST_SQL.set(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.infosys.reward_system.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.infosys.reward_system.model.RewardPromotion;
+import com.infosys.reward_system.model.RewardTier;
+
+class RewardRulesTest {
+	private static final List<RewardTier> TIERS = Arrays.asList(new RewardTier(100, 2), new RewardTier(50, 1));
+
+	@Test
+	void testTiers_MatchTheOriginalFormula() {
+		RewardRules rules = RewardRules.compile(TIERS, Collections.emptyList());
+
+		for (int dollars = 0; dollars <= 1000; dollars++) {
+			int expected = dollars <= 50 ? 0 : dollars <= 100 ? dollars - 50 : (dollars - 100) * 2 + 50;
+			assertEquals(expected, rules.tierPoints(dollars), "dollars " + dollars);
+		}
+		assertEquals(90, rules.points(12099, LocalDate.of(2024, 1, 1)));
+	}
+
+	@Test
+	void testThreeTiers_TabledAndSearched() {
+		RewardRules rules = RewardRules.compile(
+				Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2), new RewardTier(20_000, 3)),
+				Collections.emptyList());
+
+		for (int dollars = 0; dollars <= 25_000; dollars += 7) {
+			int expected = dollars <= 50 ? 0
+					: dollars <= 100 ? dollars - 50
+							: dollars <= 20_000 ? (dollars - 100) * 2 + 50 : (dollars - 20_000) * 3 + 39_850;
+			assertEquals(expected, rules.tierPoints(dollars), "dollars " + dollars);
+		}
+		assertEquals(0, rules.tierPoints(-5));
+	}
+
+	@Test
+	void testOverflowingPoints_AreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> RewardRules.compile(
+				Arrays.asList(new RewardTier(0, 1_000_000), new RewardTier(10_000, 1)), Collections.emptyList()));
+
+		RewardRules steep = RewardRules.compile(Collections.singletonList(new RewardTier(0, 1_000)),
+				Collections.emptyList());
+		assertEquals(2_000_000_000, steep.tierPoints(2_000_000));
+		assertThrows(ArithmeticException.class, () -> steep.tierPoints(3_000_000));
+		assertThrows(ArithmeticException.class, () -> steep.points(5_000_000_000_000L, LocalDate.of(2024, 1, 1)));
+	}
+
+	@Test
+	void testLongPromotion_SearchedInsteadOfTabled() {
+		RewardRules rules = RewardRules.compile(TIERS,
+				Arrays.asList(new RewardPromotion(1, LocalDate.of(2000, 1, 1), LocalDate.of(2029, 12, 31), 150),
+						new RewardPromotion(2, LocalDate.of(2024, 12, 20), LocalDate.of(2024, 12, 26), 300)));
+
+		assertEquals(90, rules.points(12000, LocalDate.of(1999, 12, 31)));
+		assertEquals(135, rules.points(12000, LocalDate.of(2000, 1, 1)));
+		assertEquals(270, rules.points(12000, LocalDate.of(2024, 12, 26)));
+		assertEquals(135, rules.points(12000, LocalDate.of(2029, 12, 31)));
+		assertEquals(90, rules.points(12000, LocalDate.of(2030, 1, 1)));
+	}
+
+	@Test
+	void testOverlappingPromotions_HighestMultiplierWins() {
+		RewardRules rules = RewardRules.compile(TIERS,
+				Arrays.asList(new RewardPromotion(1, LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31), 150),
+						new RewardPromotion(2, LocalDate.of(2024, 12, 20), LocalDate.of(2024, 12, 26), 300)));
+
+		assertEquals(90, rules.points(12000, LocalDate.of(2024, 11, 30)));
+		assertEquals(135, rules.points(12000, LocalDate.of(2024, 12, 1)));
+		assertEquals(270, rules.points(12000, LocalDate.of(2024, 12, 20)));
+		assertEquals(270, rules.points(12000, LocalDate.of(2024, 12, 26)));
+		assertEquals(135, rules.points(12000, LocalDate.of(2024, 12, 27)));
+		assertEquals(90, rules.points(12000, LocalDate.of(2025, 1, 1)));
+		assertEquals(37, rules.points(7599, LocalDate.of(2024, 12, 1)));
+	}
+
+	@Test
+	void testToSql_RendersTiersAndPromotionRanges() {
+		RewardRules rules = RewardRules.compile(TIERS, Collections
+				.singletonList(new RewardPromotion(1, LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31), 200)));
+
+		assertEquals("FLOOR((CASE WHEN FLOOR(a) <= 50 THEN 0 WHEN FLOOR(a) <= 100 THEN 0 + 1 * (FLOOR(a) - 50)"
+				+ " ELSE 50 + 2 * (FLOOR(a) - 100) END) * CASE WHEN d BETWEEN DATE '2024-12-01' AND DATE '2024-12-31'"
+				+ " THEN 200 ELSE 100 END / 100)", rules.toSql("a", "d"));
+		assertEquals("0", RewardRules.compile(Collections.emptyList(), Collections.emptyList()).toSql("a", "d"));
+	}
+
+	@Test
+	void testEqualRulesShareAVersion() {
+		RewardRules rules = RewardRules.compile(TIERS, Collections.emptyList());
+
+		assertEquals(rules, RewardRules.compile(TIERS, Collections.emptyList()));
+		assertEquals(rules.getVersion(), RewardRules.compile(TIERS, Collections.emptyList()).getVersion());
+		assertNotEquals(rules, RewardRules.compile(Collections.singletonList(new RewardTier(50, 1)),
+				Collections.emptyList()));
+		assertTrue(rules.getVersion().matches("[0-9a-f]{32}"));
+		assertNotEquals(rules.getVersion(),
+				RewardRules.compile(TIERS, Collections.singletonList(
+						new RewardPromotion(1, LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31), 200)))
+						.getVersion());
+	}
+
+	@Test
+	void testInvalidRules_AreRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> RewardRules.compile(Collections.singletonList(new RewardTier(-1, 1)), Collections.emptyList()));
+		assertThrows(IllegalArgumentException.class, () -> RewardRules.compile(TIERS, Collections
+				.singletonList(new RewardPromotion(1, LocalDate.of(2024, 12, 31), LocalDate.of(2024, 12, 1), 200))));
+	}
+}
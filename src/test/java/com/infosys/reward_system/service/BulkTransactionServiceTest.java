@@ -0,0 +1,166 @@
+package com.infosys.reward_system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.BulkIngestResultDto;
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.BulkTransactionRepository;
+import com.infosys.reward_system.rules.RewardRules;
+
+@ExtendWith(MockitoExtension.class)
+class BulkTransactionServiceTest {
+
+	@Mock
+	private BulkTransactionRepository bulkTransactionRepository;
+
+	@Mock
+	private CustomerRewardsCache customerRewardsCache;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private TransactionStore transactionStore;
+
+	@Mock
+	private RewardPointsIndex rewardPointsIndex;
+
+	private BulkTransactionService bulkTransactionService;
+
+	@BeforeEach
+	void setUp() {
+		RewardProperties rewardProperties = new RewardProperties();
+		rewardProperties.getBulk().setChunkSize(2);
+		RewardRuleEngine rewardRuleEngine = new RewardRuleEngine(RewardRules.compile(
+				Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2)), Collections.emptyList()));
+		bulkTransactionService = new BulkTransactionService(bulkTransactionRepository, customerRewardsCache,
+				rewardRuleEngine, transactionManager, new ObjectMapper().findAndRegisterModules(), rewardProperties,
+				transactionStore, rewardPointsIndex);
+	}
+
+	@Test
+	void testIngestCsv_LoadsValidRowsInChunksAndReportsRejected() throws IOException {
+		String csv = "customerId,customerName,amount,transactionDate\n" + "101,\"Doe, John\",120.00,2024-01-15\n"
+				+ "101,\"Doe, John\",75.50,2024-01-20\n" + "102,Jane,abc,2024-01-20\n" + "\n"
+				+ "102,Jane,60.00,2024-02-30\n" + "102,Jane,200.00,2024-02-01\n";
+
+		BulkIngestResultDto result = bulkTransactionService.ingest(body(csv), BulkTransactionService.Format.CSV);
+
+		assertEquals(3, result.getAcceptedRows());
+		assertEquals(2, result.getRejectedRows());
+		assertEquals(4, result.getRejections().get(0).getLine());
+		assertEquals(6, result.getRejections().get(1).getLine());
+
+		ArgumentCaptor<List<Transaction>> chunks = listCaptor();
+		verify(bulkTransactionRepository, times(2)).insertTransactions(chunks.capture());
+		assertEquals("Doe, John", chunks.getAllValues().get(0).get(0).getCustomerName());
+		assertEquals(1, chunks.getAllValues().get(1).size());
+
+		ArgumentCaptor<Collection<CustomerMonthlyReward>> ledgerDeltas = collectionCaptor();
+		verify(bulkTransactionRepository, times(2)).addToLedger(ledgerDeltas.capture());
+		CustomerMonthlyReward january = ledgerDeltas.getAllValues().get(0).iterator().next();
+		assertEquals("2024-01", january.getYearMonth());
+		assertEquals(90 + 25, january.getPoints());
+		assertEquals(2, january.getTxnCount());
+		verify(customerRewardsCache).evictCustomer(101);
+		verify(customerRewardsCache).evictCustomer(102);
+		verify(rewardPointsIndex, times(2)).add(anyList());
+	}
+
+	@Test
+	void testIngestNdjson_RejectsInvalidLines() throws IOException {
+		String ndjson = "{\"customerId\":101,\"customerName\":\"John\",\"amount\":120.00,"
+				+ "\"transactionDate\":\"2024-01-15\"}\n"
+				+ "{\"customerId\":101,\"customerName\":\"John\",\"amount\":-1,\"transactionDate\":\"2024-01-15\"}\n"
+				+ "{not json}\n";
+
+		BulkIngestResultDto result = bulkTransactionService.ingest(body(ndjson), BulkTransactionService.Format.NDJSON);
+
+		assertEquals(1, result.getAcceptedRows());
+		assertEquals(2, result.getRejectedRows());
+
+		ArgumentCaptor<List<Transaction>> chunks = listCaptor();
+		verify(bulkTransactionRepository).insertTransactions(chunks.capture());
+		Transaction loaded = chunks.getValue().get(0);
+		assertEquals(0, new BigDecimal("120.00").compareTo(loaded.getAmount()));
+		assertEquals(LocalDate.of(2024, 1, 15), loaded.getTransactionDate());
+		verify(bulkTransactionRepository, times(1)).insertTransactions(anyList());
+	}
+
+	@Test
+	void testIngestCsv_KeepsFirstRowWithoutHeaderAndRejectsLongNames() throws IOException {
+		StringBuilder longName = new StringBuilder();
+		for (int i = 0; i < 256; i++) {
+			longName.append('x');
+		}
+		String csv = "-5,John,120.00,2024-01-15\n" + "101,John,120.00,2024-01-15\n" + "102," + longName
+				+ ",60.00,2024-01-20\n";
+
+		BulkIngestResultDto result = bulkTransactionService.ingest(body(csv), BulkTransactionService.Format.CSV);
+
+		assertEquals(1, result.getAcceptedRows());
+		assertEquals(2, result.getRejectedRows());
+		assertEquals(1, result.getRejections().get(0).getLine());
+		assertEquals("customerId must be positive", result.getRejections().get(0).getReason());
+		assertEquals(3, result.getRejections().get(1).getLine());
+		assertEquals("customerName must be at most 255 characters", result.getRejections().get(1).getReason());
+	}
+
+	@Test
+	void testIngest_RewritesChunkWhoseLedgerMonthWasCreatedConcurrently() throws IOException {
+		doThrow(new DuplicateKeyException("customer_monthly_rewards")).doNothing().when(bulkTransactionRepository)
+				.addToLedger(anyCollection());
+
+		BulkIngestResultDto result = bulkTransactionService.ingest(body("101,John,120.00,2024-01-15\n"),
+				BulkTransactionService.Format.CSV);
+
+		assertEquals(1, result.getAcceptedRows());
+		verify(bulkTransactionRepository, times(2)).insertTransactions(anyList());
+		verify(bulkTransactionRepository, times(2)).addToLedger(anyCollection());
+	}
+
+	private InputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ArgumentCaptor<List<Transaction>> listCaptor() {
+		return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ArgumentCaptor<Collection<CustomerMonthlyReward>> collectionCaptor() {
+		return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+	}
+}
@@ -0,0 +1,107 @@
+package com.infosys.reward_system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.dto.RewardView;
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.rules.RewardRules;
+
+class CustomerRewardAccumulatorTest {
+	private static final RewardRules RULES = RewardRules
+			.compile(Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2)), Collections.emptyList());
+
+	@Test
+	void testMonthlyRewards_InChronologicalOrderAcrossYears() {
+		CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(RULES, 101, "John Doe");
+		accumulator.add(1, new BigDecimal("120.00"), LocalDate.of(2024, 3, 15));
+		accumulator.add(2, new BigDecimal("75.99"), LocalDate.of(2023, 11, 2));
+		accumulator.add(3, new BigDecimal("40.00"), LocalDate.of(2024, 1, 10));
+		accumulator.add(4, new BigDecimal("150.50"), LocalDate.of(2026, 2, 1));
+
+		RewardResponseDto dto = accumulator.toRewardResponseDto();
+
+		assertEquals(90 + 25 + 150, dto.getTotalRewardPoints());
+		assertEquals(Arrays.asList("2023-11", "2024-03", "2026-02"),
+				new ArrayList<>(dto.getMonthlyRewards().keySet()));
+		assertEquals(4, dto.getTransactions().size());
+	}
+
+	@Test
+	void testSummary_SkipsTransactionDetails() {
+		CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(RULES, 101, "John Doe",
+				RewardView.SUMMARY);
+		accumulator.add(1, new BigDecimal("120.00"), LocalDate.of(2024, 3, 15));
+		accumulator.add(2, new BigDecimal("40.00"), LocalDate.of(2024, 3, 20));
+
+		RewardResponseDto dto = accumulator.toRewardResponseDto();
+
+		assertEquals(90, dto.getTotalRewardPoints());
+		assertEquals(Collections.singletonMap("2024-03", 90), dto.getMonthlyRewards());
+		assertEquals(2, accumulator.getTransactionCount());
+		assertNull(dto.getTransactions());
+	}
+
+	@Test
+	void testStoreRows_MatchTheirDecimalFormInTransactionIdOrder() {
+		CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(RULES, 101, "John Doe");
+		LocalDate january = LocalDate.of(2024, 1, 20);
+		LocalDate february = LocalDate.of(2024, 2, 1);
+		accumulator.add(4, 2024 * 12, (int) january.toEpochDay(), 12075);
+		accumulator.add(2, 2024 * 12 + 1, (int) february.toEpochDay(), 7500);
+
+		RewardResponseDto dto = accumulator.toRewardResponseDto();
+
+		assertEquals(90 + 25, dto.getTotalRewardPoints());
+		assertEquals(Arrays.asList("2024-01", "2024-02"), new ArrayList<>(dto.getMonthlyRewards().keySet()));
+		assertEquals(2, dto.getTransactions().get(0).getTransactionId());
+		assertEquals(new BigDecimal("75.00"), dto.getTransactions().get(0).getTransactionAmount());
+		assertEquals(february, dto.getTransactions().get(0).getTransactionDate());
+		assertEquals(january, dto.getTransactions().get(1).getTransactionDate());
+	}
+
+	@Test
+	void testMatchesPerRowFormattingImplementation() {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+		Random random = new Random(42);
+		CustomerRewardAccumulator accumulator = new CustomerRewardAccumulator(RULES, 101, "John Doe");
+		Map<String, Integer> expectedMonthly = new HashMap<>();
+		int expectedTotal = 0;
+		List<Integer> expectedPoints = new ArrayList<>();
+
+		for (int i = 0; i < 2000; i++) {
+			BigDecimal amount = BigDecimal.valueOf(random.nextInt(50000), 2);
+			LocalDate date = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(4000));
+			accumulator.add(i, amount, date);
+
+			int dollars = amount.intValue();
+			int points = dollars <= 50 ? 0 : dollars <= 100 ? dollars - 50 : (dollars - 100) * 2 + 50;
+			expectedTotal += points;
+			expectedPoints.add(points);
+			if (points > 0) {
+				expectedMonthly.merge(date.format(formatter), points, Integer::sum);
+			}
+		}
+
+		RewardResponseDto dto = accumulator.toRewardResponseDto();
+		assertEquals(expectedTotal, dto.getTotalRewardPoints());
+		assertEquals(expectedMonthly, dto.getMonthlyRewards());
+		for (int i = 0; i < expectedPoints.size(); i++) {
+			assertEquals(expectedPoints.get(i), dto.getTransactions().get(i).getTransactionRewardPoints());
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.infosys.reward_system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.infosys.reward_system.dto.RewardResponseDto;
+
+class CustomerRewardsCacheTest {
+	private static final String RULES = "rules-1";
+
+	private Cache cache;
+
+	private CustomerRewardsCache customerRewardsCache;
+
+	@BeforeEach
+	void setUp() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager(CustomerRewardsCache.CACHE_NAME);
+		cache = cacheManager.getCache(CustomerRewardsCache.CACHE_NAME);
+		customerRewardsCache = new CustomerRewardsCache(cacheManager);
+	}
+
+	@Test
+	void testEvictCustomer_OnlyDropsThatCustomersRanges() {
+		customerRewardsCache.get(101, null, null, RULES, () -> reward(101));
+		customerRewardsCache.get(101, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), RULES, () -> reward(101));
+		customerRewardsCache.get(102, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), RULES, () -> reward(102));
+
+		customerRewardsCache.evictCustomer(101);
+
+		assertNull(cache.get(CustomerRewardsCacheKey.of(101, null, null, RULES)));
+		assertNull(cache.get(
+				CustomerRewardsCacheKey.of(101, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), RULES)));
+		assertNotNull(cache.get(
+				CustomerRewardsCacheKey.of(102, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), RULES)));
+	}
+
+	@Test
+	void testGet_CalculatesOncePerRange() {
+		AtomicInteger calculations = new AtomicInteger();
+
+		customerRewardsCache.get(101, null, null, RULES, () -> reward(calculations.incrementAndGet()));
+		RewardResponseDto cached = customerRewardsCache.get(101, LocalDate.of(2024, 1, 1), null, RULES,
+				() -> reward(calculations.incrementAndGet()));
+
+		assertEquals(1, calculations.get());
+		assertEquals(1, cached.getCustomerId());
+	}
+
+	@Test
+	void testGet_DoesNotCacheResultCalculatedAcrossAnEviction() {
+		RewardResponseDto stale = customerRewardsCache.get(101, null, null, RULES, () -> {
+			customerRewardsCache.evictCustomer(101); // a write commits while the rewards are read
+			return reward(101);
+		});
+
+		assertNotNull(stale);
+		assertNull(cache.get(CustomerRewardsCacheKey.of(101, null, null, RULES)));
+		customerRewardsCache.get(101, null, null, RULES, () -> reward(101));
+		assertNotNull(cache.get(CustomerRewardsCacheKey.of(101, null, null, RULES)));
+	}
+
+	@Test
+	void testGet_DoesNotServeRewardsOfOtherRules() {
+		AtomicInteger calculations = new AtomicInteger();
+
+		customerRewardsCache.get(101, null, null, RULES, () -> reward(calculations.incrementAndGet()));
+		RewardResponseDto rewards = customerRewardsCache.get(101, null, null, "rules-2",
+				() -> reward(calculations.incrementAndGet()));
+
+		assertEquals(2, calculations.get());
+		assertEquals(2, rewards.getCustomerId());
+	}
+
+	@Test
+	void testEvictAll_DropsEveryCustomer() {
+		customerRewardsCache.get(101, null, null, RULES, () -> reward(101));
+		customerRewardsCache.get(102, null, null, RULES, () -> reward(102));
+
+		customerRewardsCache.evictAll();
+
+		assertNull(cache.get(CustomerRewardsCacheKey.of(101, null, null, RULES)));
+		assertNull(cache.get(CustomerRewardsCacheKey.of(102, null, null, RULES)));
+	}
+
+	@Test
+	void testRangesDroppedByCaffeine_AreUntracked() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager(CustomerRewardsCache.CACHE_NAME);
+		customerRewardsCache = new CustomerRewardsCache(cacheManager);
+		cacheManager.setCaffeine(
+				Caffeine.newBuilder().maximumSize(10).executor(Runnable::run).removalListener(customerRewardsCache));
+		CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CustomerRewardsCache.CACHE_NAME);
+
+		for (int customerId = 1; customerId <= 100; customerId++) {
+			int id = customerId;
+			customerRewardsCache.get(id, null, null, RULES, () -> reward(id));
+		}
+		cache.getNativeCache().cleanUp();
+
+		assertEquals(cache.getNativeCache().estimatedSize(), customerRewardsCache.trackedCustomers());
+		customerRewardsCache.get(100, null, null, RULES, () -> reward(100));
+		assertNotNull(cache.get(CustomerRewardsCacheKey.of(100, null, null, RULES)));
+	}
+
+	@Test
+	void testCacheKey_OpenRangeIgnoresLoneBound() {
+		assertEquals(CustomerRewardsCacheKey.of(101, null, null, RULES),
+				CustomerRewardsCacheKey.of(101, LocalDate.of(2024, 1, 1), null, RULES));
+	}
+
+	private static RewardResponseDto reward(int customerId) {
+		return RewardResponseDto.builder().customerId(customerId).build();
+	}
+}
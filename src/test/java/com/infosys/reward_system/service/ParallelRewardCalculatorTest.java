@@ -0,0 +1,97 @@
+package com.infosys.reward_system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.RewardBatchDto;
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.exception.CustomerNotFoundException;
+
+class ParallelRewardCalculatorTest {
+
+	private ParallelRewardCalculator parallelRewardCalculator;
+
+	@BeforeEach
+	void setUp() {
+		RewardProperties rewardProperties = new RewardProperties();
+		rewardProperties.getParallel().setEnabled(true);
+		rewardProperties.getParallel().setCustomerTimeout(Duration.ofMillis(500));
+		parallelRewardCalculator = new ParallelRewardCalculator(rewardProperties, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		parallelRewardCalculator.destroy();
+	}
+
+	@Test
+	void testCalculate_KeepsCustomerOrder() {
+		List<Integer> customerIds = Arrays.asList(5, 4, 3, 2, 1);
+
+		RewardBatchDto batch = parallelRewardCalculator.calculate(customerIds, customerId -> {
+			sleep(customerId * 20L); // later customers finish first
+			return reward(customerId);
+		});
+
+		assertEquals(customerIds,
+				batch.getRewards().stream().map(RewardResponseDto::getCustomerId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void testCalculate_ListsFailedAndTimedOutCustomers() {
+		RewardBatchDto batch = parallelRewardCalculator.calculate(Arrays.asList(1, 2, 3, 4), customerId -> {
+			if (customerId == 2) {
+				throw new CustomerNotFoundException(customerId);
+			}
+			if (customerId == 3) {
+				throw new IllegalStateException("database unavailable");
+			}
+			if (customerId == 4) {
+				sleep(5_000);
+			}
+			return reward(customerId);
+		});
+
+		assertEquals(Collections.singletonList(1),
+				batch.getRewards().stream().map(RewardResponseDto::getCustomerId).collect(Collectors.toList()));
+		assertEquals(Collections.singletonList(2), batch.getNotFoundCustomerIds());
+		assertEquals(Arrays.asList(3, 4), batch.getFailedCustomerIds());
+	}
+
+	@Test
+	void testCalculate_WaitsForOneDeadlineRatherThanOneTimeoutPerCustomer() {
+		long start = System.nanoTime();
+		RewardBatchDto batch = parallelRewardCalculator.calculate(Arrays.asList(1, 2, 3, 4), customerId -> {
+			sleep(5_000);
+			return reward(customerId);
+		});
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(Arrays.asList(1, 2, 3, 4), batch.getFailedCustomerIds());
+		assertTrue(elapsedMillis < 1_500, "waited " + elapsedMillis + " ms for four 500 ms timeouts");
+	}
+
+	private static RewardResponseDto reward(int customerId) {
+		return RewardResponseDto.builder().customerId(customerId).build();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
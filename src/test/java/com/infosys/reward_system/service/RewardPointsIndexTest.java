@@ -0,0 +1,91 @@
+package com.infosys.reward_system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.repository.RewardAggregationRepository;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+import com.infosys.reward_system.repository.projection.MonthlyRewardPoints;
+import com.infosys.reward_system.rules.RewardRules;
+
+@ExtendWith(MockitoExtension.class)
+class RewardPointsIndexTest {
+	private static final RewardRules RULES = RewardRules.compile(
+			Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2)), Collections.emptyList());
+
+	@Mock
+	private RewardAggregationRepository rewardAggregationRepository;
+
+	private RewardPointsIndex rewardPointsIndex;
+
+	@BeforeEach
+	void setUp() {
+		RewardProperties rewardProperties = new RewardProperties();
+		rewardProperties.getPointsIndex().setEnabled(true);
+		rewardPointsIndex = new RewardPointsIndex(rewardAggregationRepository, rewardProperties);
+	}
+
+	@Test
+	void testRebuild_IndexesEveryCustomersDays() {
+		doAnswer(invocation -> {
+			Consumer<DailyRewardPoints> sink = invocation.getArgument(1);
+			sink.accept(new DailyRewardPoints(1, "John", LocalDate.of(2024, 1, 10), 90));
+			sink.accept(new DailyRewardPoints(1, "John", LocalDate.of(2024, 2, 15), 25));
+			sink.accept(new DailyRewardPoints(2, "Jane", LocalDate.of(2024, 1, 31), 50));
+			return null;
+		}).when(rewardAggregationRepository).streamDailyRewardPoints(eq(RULES), any());
+
+		assertEquals(2, rewardPointsIndex.rebuild(RULES));
+
+		assertEquals(Arrays.asList(new MonthlyRewardPoints(1, "John", 2024, 1, 90),
+				new MonthlyRewardPoints(1, "John", 2024, 2, 25), new MonthlyRewardPoints(2, "Jane", 2024, 1, 50)),
+				rewardPointsIndex.findMonthlyRewardPoints(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+	}
+
+	@Test
+	void testAdd_MergesDaysAndKeepsTheGreatestName() {
+		rewardPointsIndex.add(Arrays.asList(new DailyRewardPoints(1, "John", LocalDate.of(2024, 3, 5), 10),
+				new DailyRewardPoints(1, "John", LocalDate.of(2024, 1, 10), 90)));
+		rewardPointsIndex.add(Arrays.asList(new DailyRewardPoints(1, "Johnny", LocalDate.of(2024, 1, 10), 5),
+				new DailyRewardPoints(1, "John", LocalDate.of(2024, 2, 1), 0),
+				new DailyRewardPoints(1, "John", LocalDate.of(2023, 12, 31), 40)));
+
+		assertEquals(Arrays.asList(new MonthlyRewardPoints(1, "Johnny", 2023, 12, 40),
+				new MonthlyRewardPoints(1, "Johnny", 2024, 1, 95), new MonthlyRewardPoints(1, "Johnny", 2024, 2, 0),
+				new MonthlyRewardPoints(1, "Johnny", 2024, 3, 10)),
+				rewardPointsIndex.findMonthlyRewardPoints(1, LocalDate.of(2023, 1, 1), LocalDate.of(2024, 12, 31)));
+	}
+
+	@Test
+	void testFindMonthlyRewardPoints_CutsTheRangeOnAnyDay() {
+		rewardPointsIndex.add(Arrays.asList(new DailyRewardPoints(1, "John", LocalDate.of(2024, 1, 10), 90),
+				new DailyRewardPoints(1, "John", LocalDate.of(2024, 1, 20), 30),
+				new DailyRewardPoints(1, "John", LocalDate.of(2024, 2, 15), 25)));
+
+		assertEquals(Arrays.asList(new MonthlyRewardPoints(1, "John", 2024, 1, 30),
+				new MonthlyRewardPoints(1, "John", 2024, 2, 25)),
+				rewardPointsIndex.findMonthlyRewardPoints(1, LocalDate.of(2024, 1, 11), LocalDate.of(2024, 2, 15)));
+		assertEquals(Collections.singletonList(new MonthlyRewardPoints(1, "John", 2024, 1, 90)),
+				rewardPointsIndex.findMonthlyRewardPoints(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 10)));
+		assertTrue(rewardPointsIndex.findMonthlyRewardPoints(1, LocalDate.of(2024, 1, 21), LocalDate.of(2024, 2, 14))
+				.isEmpty());
+		assertTrue(rewardPointsIndex.findMonthlyRewardPoints(2, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))
+				.isEmpty());
+	}
+}
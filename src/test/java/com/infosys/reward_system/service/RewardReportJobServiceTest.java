@@ -0,0 +1,163 @@
+package com.infosys.reward_system.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.RewardReportJobDto;
+import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.model.RewardReportJob;
+import com.infosys.reward_system.model.RewardReportJobStatus;
+import com.infosys.reward_system.repository.RewardReportJobRepository;
+import com.infosys.reward_system.repository.TransactionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RewardReportJobServiceTest {
+
+	@Mock
+	private RewardService rewardService;
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Mock
+	private RewardReportJobRepository rewardReportJobRepository;
+
+	@TempDir
+	Path resultDir;
+
+	private final Map<String, RewardReportJob> storedJobs = new ConcurrentHashMap<>();
+
+	private RewardReportJobService rewardReportJobService;
+
+	@BeforeEach
+	void setUp() {
+		when(rewardReportJobRepository.save(any())).thenAnswer(invocation -> {
+			RewardReportJob job = invocation.getArgument(0);
+			storedJobs.put(job.getJobId(), job);
+			return job;
+		});
+		when(rewardReportJobRepository.findById(anyString()))
+				.thenAnswer(invocation -> Optional.ofNullable(storedJobs.get(invocation.<String>getArgument(0))));
+		when(transactionRepository.countDistinctCustomerIds()).thenReturn(2L);
+
+		RewardProperties rewardProperties = new RewardProperties();
+		rewardProperties.getJobs().setResultDir(resultDir.toString());
+		rewardReportJobService = new RewardReportJobService(rewardService, transactionRepository,
+				rewardReportJobRepository, new ObjectMapper().findAndRegisterModules(), rewardProperties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		rewardReportJobService.destroy();
+	}
+
+	@Test
+	void testSubmit_DeduplicatesRunningReportAndStoresResult() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			Consumer<RewardResponseDto> sink = invocation.getArgument(3);
+			sink.accept(RewardResponseDto.builder().customerId(1).customerName("Saurabh").totalRewardPoints(645)
+					.build());
+			release.await(5, TimeUnit.SECONDS);
+			sink.accept(RewardResponseDto.builder().customerId(2).customerName("Rahul").totalRewardPoints(630)
+					.build());
+			return null;
+		}).when(rewardService).streamAllCustomerRewards(any(), any(), any(), any());
+
+		RewardReportJobDto first = rewardReportJobService.submit(null, null);
+		RewardReportJobDto second = rewardReportJobService.submit(null, null);
+		release.countDown();
+
+		assertEquals(first.getJobId(), second.getJobId());
+		RewardReportJobDto finished = awaitFinished(first.getJobId());
+		assertEquals(RewardReportJobStatus.SUCCEEDED, finished.getStatus());
+		assertEquals(2, finished.getCustomersDone());
+		assertEquals(2, finished.getCustomersTotal());
+		assertEquals("/api/rewards/jobs/" + first.getJobId() + "/result", finished.getResultUrl());
+		String result = new String(Files.readAllBytes(rewardReportJobService.getResult(first.getJobId())), "UTF-8");
+		assertTrue(result.startsWith("[{\"customerId\":1,"));
+		verify(rewardService, times(1)).streamAllCustomerRewards(any(), any(), any(), any());
+	}
+
+	@Test
+	void testSubmit_RecordsFailureAndAllowsRetry() throws Exception {
+		doThrow(new IllegalStateException("database unavailable")).when(rewardService)
+				.streamAllCustomerRewards(any(), any(), any(), any());
+
+		RewardReportJobDto failed = awaitFinished(rewardReportJobService.submit(null, null).getJobId());
+
+		assertEquals(RewardReportJobStatus.FAILED, failed.getStatus());
+		assertTrue(failed.getError().contains("database unavailable"));
+		assertEquals(0, Files.list(resultDir).count());
+		assertNotEquals(failed.getJobId(), rewardReportJobService.submit(null, null).getJobId());
+	}
+
+	@Test
+	void testStartup_FailsUnfinishedJobsAndDeletesOrphanedResults() throws Exception {
+		RewardReportJob running = RewardReportJob.builder().jobId(UUID.randomUUID().toString())
+				.status(RewardReportJobStatus.RUNNING).build();
+		storedJobs.put(running.getJobId(), running);
+		when(rewardReportJobRepository.findByStatusIn(any())).thenReturn(Collections.singletonList(running));
+		when(rewardReportJobRepository.existsById(anyString()))
+				.thenAnswer(invocation -> storedJobs.containsKey(invocation.<String>getArgument(0)));
+		Path kept = Files.createFile(resultDir.resolve(running.getJobId() + ".json"));
+		Path partial = Files.createFile(resultDir.resolve(running.getJobId() + ".json.part"));
+		Path orphaned = Files.createFile(resultDir.resolve(UUID.randomUUID() + ".json"));
+		Path unrelated = Files.createFile(resultDir.resolve("notes.txt"));
+
+		rewardReportJobService.afterPropertiesSet();
+
+		RewardReportJobDto failed = rewardReportJobService.getJob(running.getJobId());
+		assertEquals(RewardReportJobStatus.FAILED, failed.getStatus());
+		assertNotNull(failed.getFinishedAt());
+		assertTrue(Files.exists(kept));
+		assertFalse(Files.exists(partial));
+		assertFalse(Files.exists(orphaned));
+		assertTrue(Files.exists(unrelated));
+		assertEquals(RewardReportJobStatus.SUCCEEDED,
+				awaitFinished(rewardReportJobService.submit(null, null).getJobId()).getStatus());
+	}
+
+	private RewardReportJobDto awaitFinished(String jobId) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			RewardReportJobDto job = rewardReportJobService.getJob(jobId);
+			if (job.getStatus() == RewardReportJobStatus.SUCCEEDED || job.getStatus() == RewardReportJobStatus.FAILED) {
+				return job;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Report job " + jobId + " did not finish");
+	}
+}
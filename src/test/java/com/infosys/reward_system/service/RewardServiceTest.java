@@ -3,23 +3,50 @@ package com.infosys.reward_system.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.infosys.reward_system.config.RewardProperties;
+import com.infosys.reward_system.dto.RewardBatchDto;
+import com.infosys.reward_system.dto.RewardLeaderDto;
+import com.infosys.reward_system.dto.RewardPageDto;
 import com.infosys.reward_system.dto.RewardResponseDto;
+import com.infosys.reward_system.dto.RewardView;
 import com.infosys.reward_system.exception.CustomerNotFoundException;
-import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.metrics.RewardMetrics;
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.repository.CustomerMonthlyRewardRepository;
+import com.infosys.reward_system.repository.RewardAggregationRepository;
 import com.infosys.reward_system.repository.TransactionRepository;
+import com.infosys.reward_system.repository.projection.CustomerRewardTotal;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+import com.infosys.reward_system.repository.projection.TransactionRow;
+import com.infosys.reward_system.rules.RewardRules;
+import com.infosys.reward_system.store.TransactionBatch;
+import com.infosys.reward_system.store.TransactionSnapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class RewardServiceTest {
@@ -27,23 +54,53 @@ class RewardServiceTest {
 	@Mock
 	private TransactionRepository transactionRepository;
 
+	@Mock
+	private CustomerMonthlyRewardRepository customerMonthlyRewardRepository;
+
+	@Mock
+	private RewardAggregationRepository rewardAggregationRepository;
+
+	@Spy
+	private RewardRuleEngine rewardRuleEngine = new RewardRuleEngine(RewardRules.compile(
+			Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2)), Collections.emptyList()));
+
+	@Mock
+	private ParallelRewardCalculator parallelRewardCalculator;
+
+	@Spy
+	private RewardMetrics rewardMetrics = new RewardMetrics(new SimpleMeterRegistry());
+
+	@Mock
+	private TransactionStore transactionStore;
+
+	@Mock
+	private RewardPointsIndex rewardPointsIndex;
+
+	@Spy
+	private CustomerRewardsCache customerRewardsCache = new CustomerRewardsCache(
+			new CaffeineCacheManager(CustomerRewardsCache.CACHE_NAME));
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
 	@InjectMocks
 	private RewardService rewardService;
 
-	private List<Transaction> sampleTransactions;
+	private List<TransactionRow> sampleTransactions;
 
 	@BeforeEach
 	void setUp() {
 		sampleTransactions = Arrays.asList(
-				new Transaction(1, 101, "John Doe", BigDecimal.valueOf(120), LocalDate.of(2024, 1, 10)),
-				new Transaction(2, 101, "John Doe", BigDecimal.valueOf(75), LocalDate.of(2024, 2, 15)),
-				new Transaction(3, 101, "John Doe", BigDecimal.valueOf(30), LocalDate.of(2024, 3, 20)));
+				new TransactionRow(101, "John Doe", 1, BigDecimal.valueOf(120), LocalDate.of(2024, 1, 10)),
+				new TransactionRow(101, "John Doe", 2, BigDecimal.valueOf(75), LocalDate.of(2024, 2, 15)),
+				new TransactionRow(101, "John Doe", 3, BigDecimal.valueOf(30), LocalDate.of(2024, 3, 20)));
 	}
 
 	@Test
 	void testCalculateCustomerRewards_ValidCustomer() {
-		when(transactionRepository.findByCustomerIdAndTransactionDateBetween(anyInt(), any(), any()))
+		when(transactionRepository.findRowsByCustomerIdAndTransactionDateBetween(anyInt(), any(), any()))
 				.thenReturn(sampleTransactions);
+		when(transactionRepository.findCustomerNames(eq(101), any())).thenReturn(Arrays.asList("John Doe"));
 
 		RewardResponseDto response = rewardService.calculateCustomerRewards(101, LocalDate.of(2024, 1, 1),
 				LocalDate.of(2024, 3, 31));
@@ -61,21 +118,21 @@ class RewardServiceTest {
 
 	@Test
 	void testCalculateCustomerRewards_CustomerNotFound() {
-		when(transactionRepository.findByCustomerIdAndTransactionDateBetween(anyInt(), any(), any()))
+		when(transactionRepository.findRowsByCustomerIdAndTransactionDateBetween(anyInt(), any(), any()))
 				.thenReturn(Collections.emptyList());
 
 		assertThrows(CustomerNotFoundException.class,
 				() -> rewardService.calculateCustomerRewards(102, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)));
+		verify(rewardMetrics).customerNotFound();
 	}
 
 	@Test
 	void testCalculateAllCustomerRewards() {
-		when(transactionRepository.findDistinctCustomerIds()).thenReturn(Collections.singletonList(101));
-		when(transactionRepository.findByCustomerIdAndTransactionDateBetween(anyInt(), any(), any()))
+		when(transactionRepository.findRowsByTransactionDateBetweenOrderByCustomer(any(), any()))
 				.thenReturn(sampleTransactions);
 
-		List<RewardResponseDto> responseList = rewardService.calculateAllCustomerRewards(LocalDate.of(2024, 1, 1),
-				LocalDate.of(2024, 3, 31));
+		List<RewardResponseDto> responseList = rewardService
+				.calculateAllCustomerRewards(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)).getRewards();
 
 		assertFalse(responseList.isEmpty());
 		assertEquals(1, responseList.size());
@@ -84,4 +141,185 @@ class RewardServiceTest {
 		assertEquals(101, response.getCustomerId());
 		assertEquals("John Doe", response.getCustomerName());
 	}
+
+	@Test
+	void testCalculateAllCustomerRewards_SingleQueryForAllCustomers() {
+		List<TransactionRow> transactions = new ArrayList<>(sampleTransactions);
+		transactions.add(new TransactionRow(102, "Jane Roe", 4, BigDecimal.valueOf(200), LocalDate.of(2024, 1, 12)));
+		transactions.add(new TransactionRow(102, "Jane Roe", 5, BigDecimal.valueOf(60), LocalDate.of(2024, 3, 2)));
+		when(transactionRepository.findAllRowsOrderByCustomer()).thenReturn(transactions);
+
+		List<RewardResponseDto> responseList = rewardService.calculateAllCustomerRewards(null, null).getRewards();
+
+		assertEquals(2, responseList.size());
+		assertEquals(101, responseList.get(0).getCustomerId());
+		assertEquals(90 + 25, responseList.get(0).getTotalRewardPoints());
+		assertEquals(3, responseList.get(0).getTransactions().size());
+
+		RewardResponseDto secondCustomer = responseList.get(1);
+		assertEquals(102, secondCustomer.getCustomerId());
+		assertEquals("Jane Roe", secondCustomer.getCustomerName());
+		assertEquals(250 + 10, secondCustomer.getTotalRewardPoints());
+		assertEquals(2, secondCustomer.getTransactions().size());
+
+		verify(transactionRepository, never()).findRowsByCustomerId(anyInt());
+		verify(transactionRepository, never()).findDistinctCustomerIds();
+	}
+
+	@Test
+	void testCalculateCustomerRewardsBatch_ChunkedInQueries() {
+		List<Integer> customerIds = new ArrayList<>();
+		List<Integer> firstChunk = new ArrayList<>();
+		for (int customerId = RewardService.BATCH_CHUNK_SIZE + 100; customerId >= 1; customerId--) {
+			customerIds.add(customerId);
+			if (customerId <= RewardService.BATCH_CHUNK_SIZE) {
+				firstChunk.add(0, customerId);
+			}
+		}
+		when(transactionRepository.findRowsByCustomerIdInOrderByCustomer(any())).thenReturn(Collections.emptyList());
+		when(transactionRepository.findRowsByCustomerIdInOrderByCustomer(eq(firstChunk)))
+				.thenReturn(Arrays.asList(
+						new TransactionRow(2, "John Doe", 1, BigDecimal.valueOf(120), LocalDate.of(2024, 1, 10)),
+						new TransactionRow(7, "Jane Roe", 2, BigDecimal.valueOf(75), LocalDate.of(2024, 2, 15))));
+
+		RewardBatchDto batch = rewardService.calculateCustomerRewardsBatch(customerIds, null, null, RewardView.FULL);
+
+		assertEquals(2, batch.getRewards().size());
+		assertEquals(7, batch.getRewards().get(0).getCustomerId()); // in request order
+		assertEquals(25, batch.getRewards().get(0).getTotalRewardPoints());
+		assertEquals(2, batch.getRewards().get(1).getCustomerId());
+		assertEquals(1, batch.getRewards().get(1).getTransactions().size());
+		assertEquals(customerIds.size() - 2, batch.getNotFoundCustomerIds().size());
+		assertEquals(RewardService.BATCH_CHUNK_SIZE + 100, batch.getNotFoundCustomerIds().get(0));
+		verify(transactionRepository, times(2)).findRowsByCustomerIdInOrderByCustomer(any());
+		verify(transactionRepository, never()).findRowsByCustomerId(anyInt());
+	}
+
+	@Test
+	void testTransactionStore_ServesRewardsWithoutQueries() {
+		TransactionBatch batch = new TransactionBatch();
+		for (TransactionRow row : sampleTransactions) {
+			batch.add(row.getTransactionId(), row.getCustomerId(), row.getCustomerName(), row.getTransactionDate(),
+					CustomerRewardAccumulator.toCents(row.getAmount()));
+		}
+		batch.add(4, 102, "Jane Doe", LocalDate.of(2024, 3, 1), 20000);
+		RewardService storeService = new RewardService(transactionRepository, customerMonthlyRewardRepository,
+				rewardAggregationRepository, rewardRuleEngine, parallelRewardCalculator, rewardMetrics,
+				new TransactionStore(TransactionSnapshot.EMPTY.with(batch)), rewardPointsIndex, customerRewardsCache,
+				transactionManager);
+
+		RewardResponseDto response = storeService.calculateCustomerRewards(101, LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 3, 31));
+		assertEquals("John Doe", response.getCustomerName());
+		assertEquals(90 + 25, response.getTotalRewardPoints());
+		assertEquals(new BigDecimal("120.00"), response.getTransactions().get(0).getTransactionAmount());
+		assertEquals(LocalDate.of(2024, 2, 15), response.getTransactions().get(1).getTransactionDate());
+
+		RewardPageDto page = storeService.calculateCustomerRewardsPage(0, 1, null, null, RewardView.SUMMARY);
+		assertEquals(1, page.getRewards().size());
+		assertNull(page.getRewards().get(0).getTransactions());
+		assertEquals(101, page.getNextCursor());
+
+		assertEquals("4-4-" + rewardRuleEngine.getRules().getVersion(), storeService.getAllCustomerRewardsVersion());
+		assertThrows(CustomerNotFoundException.class, () -> storeService.calculateCustomerRewards(103, null, null));
+		verifyNoInteractions(transactionRepository, transactionManager);
+	}
+
+	@Test
+	void testGetAllCustomerRewardsVersion_FollowsLedgerWritesWithoutQueries() {
+		String version = rewardService.getAllCustomerRewardsVersion();
+		assertEquals(version, rewardService.getAllCustomerRewardsVersion());
+
+		rewardRuleEngine.writeLedger(rules -> null);
+
+		assertNotEquals(version, rewardService.getAllCustomerRewardsVersion());
+		verifyNoInteractions(transactionRepository, customerMonthlyRewardRepository, rewardAggregationRepository);
+	}
+
+	@Test
+	void testCalculateCustomerRewardSummary_MonthAlignedRangeUsesLedger() {
+		when(customerMonthlyRewardRepository.findByCustomerIdAndYearMonthBetweenOrderByYearMonthAsc(101, "2024-01",
+				"2024-03"))
+				.thenReturn(Arrays.asList(new CustomerMonthlyReward(101, "2024-01", "John Doe", 90, 1),
+						new CustomerMonthlyReward(101, "2024-02", "John Doe", 25, 1),
+						new CustomerMonthlyReward(101, "2024-03", "John Doe", 0, 1)));
+
+		RewardResponseDto response = rewardService.calculateCustomerRewardSummary(101, LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 3, 31));
+
+		assertEquals("John Doe", response.getCustomerName());
+		assertEquals(90 + 25, response.getTotalRewardPoints());
+		assertEquals(2, response.getMonthlyRewards().size());
+		assertNull(response.getTransactions());
+		verify(rewardAggregationRepository, never())
+				.findMonthlyRewardPointsByCustomerIdAndTransactionDateBetween(any(), anyInt(), any(), any());
+	}
+
+	@Test
+	void testCalculateCustomerRewardSummary_UnalignedRangeUsesPointsIndex() {
+		RewardProperties rewardProperties = new RewardProperties();
+		rewardProperties.getPointsIndex().setEnabled(true);
+		RewardPointsIndex pointsIndex = new RewardPointsIndex(rewardAggregationRepository, rewardProperties);
+		pointsIndex.add(Arrays.asList(new DailyRewardPoints(101, "John Doe", LocalDate.of(2024, 1, 10), 90),
+				new DailyRewardPoints(101, "John Doe", LocalDate.of(2024, 2, 15), 25),
+				new DailyRewardPoints(101, "John Doe", LocalDate.of(2024, 3, 20), 0)));
+		RewardService indexService = new RewardService(transactionRepository, customerMonthlyRewardRepository,
+				rewardAggregationRepository, rewardRuleEngine, parallelRewardCalculator, rewardMetrics,
+				transactionStore, pointsIndex, customerRewardsCache, transactionManager);
+
+		RewardResponseDto response = indexService.calculateCustomerRewardSummary(101, LocalDate.of(2024, 1, 5),
+				LocalDate.of(2024, 3, 25));
+		assertEquals(90 + 25, response.getTotalRewardPoints());
+		assertEquals(2, response.getMonthlyRewards().size());
+		assertEquals(25, indexService.calculateAllCustomerRewardSummaries(LocalDate.of(2024, 1, 11),
+				LocalDate.of(2024, 3, 25)).get(0).getTotalRewardPoints());
+		assertThrows(CustomerNotFoundException.class, () -> indexService.calculateCustomerRewardSummary(101,
+				LocalDate.of(2024, 1, 11), LocalDate.of(2024, 2, 14)));
+		verifyNoInteractions(rewardAggregationRepository, customerMonthlyRewardRepository);
+	}
+
+	@Test
+	void testFindTopCustomers_KeepsTheLeadersWithTiesByCustomerId() {
+		doAnswer(invocation -> {
+			Consumer<CustomerRewardTotal> sink = invocation.getArgument(2);
+			sink.accept(new CustomerRewardTotal(104, "Ann", 40));
+			sink.accept(new CustomerRewardTotal(103, "Bob", 90));
+			sink.accept(new CustomerRewardTotal(101, "John Doe", 25));
+			sink.accept(new CustomerRewardTotal(102, "Jane", 90));
+			sink.accept(new CustomerRewardTotal(105, "Eve", 0));
+			return null;
+		}).when(rewardAggregationRepository).streamLedgerRewardTotalsByYearMonthBetween(eq("2024-01"),
+				eq("2024-03"), any());
+
+		List<RewardLeaderDto> leaders = rewardService.findTopCustomers(3, LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 3, 31));
+
+		assertEquals(Arrays.asList(new RewardLeaderDto(102, "Jane", 90), new RewardLeaderDto(103, "Bob", 90),
+				new RewardLeaderDto(104, "Ann", 40)), leaders);
+		verify(rewardAggregationRepository, never()).streamRewardTotalsByTransactionDateBetween(any(), any(), any(),
+				any());
+		verifyNoInteractions(rewardPointsIndex);
+	}
+
+	@Test
+	void testFindTopCustomers_UnalignedRangeUsesTheAggregateQuery() {
+		doAnswer(invocation -> {
+			Consumer<CustomerRewardTotal> sink = invocation.getArgument(3);
+			sink.accept(new CustomerRewardTotal(101, "John Doe", 115));
+			return null;
+		}).when(rewardAggregationRepository).streamRewardTotalsByTransactionDateBetween(any(),
+				eq(LocalDate.of(2024, 1, 5)), eq(LocalDate.of(2024, 3, 25)), any());
+
+		assertEquals(Collections.singletonList(new RewardLeaderDto(101, "John Doe", 115)),
+				rewardService.findTopCustomers(10, LocalDate.of(2024, 1, 5), LocalDate.of(2024, 3, 25)));
+	}
+
+	@Test
+	void testCalculateCustomerRewardSummary_CustomerNotFound() {
+		when(customerMonthlyRewardRepository.findByCustomerIdOrderByYearMonthAsc(102))
+				.thenReturn(Collections.emptyList());
+
+		assertThrows(CustomerNotFoundException.class,
+				() -> rewardService.calculateCustomerRewardSummary(102, null, null));
+	}
 }
@@ -0,0 +1,87 @@
+package com.infosys.reward_system.service;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.infosys.reward_system.model.CustomerMonthlyReward;
+import com.infosys.reward_system.model.RewardPromotion;
+import com.infosys.reward_system.model.RewardTier;
+import com.infosys.reward_system.model.Transaction;
+import com.infosys.reward_system.repository.BulkTransactionRepository;
+import com.infosys.reward_system.repository.TransactionRepository;
+import com.infosys.reward_system.repository.projection.DailyRewardPoints;
+import com.infosys.reward_system.rules.RewardRules;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+	private static final List<RewardTier> TIERS = Arrays.asList(new RewardTier(50, 1), new RewardTier(100, 2));
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Mock
+	private BulkTransactionRepository bulkTransactionRepository;
+
+	@Mock
+	private CustomerRewardsCache customerRewardsCache;
+
+	@Spy
+	private RewardRuleEngine rewardRuleEngine = new RewardRuleEngine(
+			RewardRules.compile(TIERS, Collections.emptyList()));
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private TransactionStore transactionStore;
+
+	@Mock
+	private RewardPointsIndex rewardPointsIndex;
+
+	@InjectMocks
+	private TransactionService transactionService;
+
+	private final Transaction transaction = new Transaction(7, 101, "John Doe", BigDecimal.valueOf(120.75),
+			LocalDate.of(2024, 2, 29));
+
+	@Test
+	void testSaveTransaction_UpsertsLedgerMonth() {
+		when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+		transactionService.saveTransaction(transaction);
+
+		verify(bulkTransactionRepository).addToLedger(new CustomerMonthlyReward(101, "2024-02", "John Doe", 90, 1));
+		verify(customerRewardsCache).evictCustomer(101);
+		verify(rewardPointsIndex).add(Collections.singletonList(
+				new DailyRewardPoints(101, "John Doe", LocalDate.of(2024, 2, 29), 90)));
+		verify(transactionStore).requestRefresh();
+	}
+
+	@Test
+	void testSaveTransaction_AppliesPromotionInForce() {
+		RewardPromotion leapDay = new RewardPromotion(1, LocalDate.of(2024, 2, 29), LocalDate.of(2024, 2, 29), 200);
+		TransactionService promotedService = new TransactionService(transactionRepository,
+				bulkTransactionRepository, customerRewardsCache,
+				new RewardRuleEngine(RewardRules.compile(TIERS, Collections.singletonList(leapDay))),
+				transactionManager, transactionStore, rewardPointsIndex);
+		when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+		promotedService.saveTransaction(transaction);
+
+		verify(bulkTransactionRepository).addToLedger(new CustomerMonthlyReward(101, "2024-02", "John Doe", 180, 1));
+	}
+}
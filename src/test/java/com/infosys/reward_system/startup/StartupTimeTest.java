@@ -0,0 +1,166 @@
+package com.infosys.reward_system.startup;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.infosys.reward_system.RewardSystemApplication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Time to first request of the application started in a fresh JVM, under the
+ * default, {@code prod} and {@code prod,fast-start} profiles, and on Java 13+
+ * also with a class-data-sharing archive recorded by a training run. Each mode
+ * is started {@code startup.runs} times and its fastest and median times are
+ * logged. Excluded from the default build; run with
+ * {@code mvn -Pstartup-test test [-Dstartup.runs=5]}.
+ */
+@Tag("startup")
+@Slf4j
+class StartupTimeTest {
+	private static final String FIRST_REQUEST = "/api/rewards/1?view=summary";
+	private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+	private final int runs = Integer.getInteger("startup.runs", 3);
+	private final Path workDir = Paths.get("target", "startup").toAbsolutePath();
+	private String classPath;
+
+	@Test
+	void timeToFirstRequest() throws Exception {
+		Files.createDirectories(workDir);
+		classPath = applicationClassPath();
+		measure("default", "default");
+		measure("prod", "prod");
+		measure("prod,fast-start", "prod,fast-start");
+
+		if (javaFeatureVersion() >= 13) {
+			Path archive = workDir.resolve("reward-system.jsa");
+			Files.deleteIfExists(archive);
+			start("prod,fast-start", "cds-training", "-XX:ArchiveClassesAtExit=" + archive);
+			assertTrue(Files.exists(archive), "class-data-sharing archive " + archive);
+			measure("prod,fast-start + CDS", "prod,fast-start", "-XX:SharedArchiveFile=" + archive);
+		}
+	}
+
+	private void measure(String mode, String profiles, String... jvmArgs) throws Exception {
+		long[] millis = new long[runs];
+		for (int run = 0; run < runs; run++) {
+			millis[run] = start(profiles, mode.replaceAll("\\W+", "-") + "-" + run, jvmArgs);
+		}
+		Arrays.sort(millis);
+		log.info(String.format("%-22s time to first request ms: min %5d median %5d (%d runs)", mode, millis[0],
+				millis[runs / 2], runs));
+	}
+
+	/**
+	 * Starts the application, waits for the first successful response and stops
+	 * it again.
+	 *
+	 * @return milliseconds from launching the JVM to the first response
+	 */
+	private long start(String profiles, String name, String... jvmArgs) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(Arrays.asList(jvmArgs));
+		command.addAll(Arrays.asList("-cp", classPath, RewardSystemApplication.class.getName(),
+				"--spring.profiles.active=" + profiles, "--server.port=" + port));
+
+		File output = workDir.resolve(name + ".log").toFile();
+		long startedAt = System.nanoTime();
+		Process process = new ProcessBuilder(command).directory(workDir.toFile()).redirectErrorStream(true)
+				.redirectOutput(output).start();
+		try {
+			while (!respondsOk(port)) {
+				assertTrue(process.isAlive(), "application exited, see " + output);
+				assertTrue(System.nanoTime() - startedAt < TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS),
+						"no response within " + TIMEOUT_MILLIS + " ms, see " + output);
+				Thread.sleep(10);
+			}
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+		} finally {
+			process.destroy(); // a normal shutdown, so a class-data-sharing archive is written at exit
+			process.waitFor(1, TimeUnit.MINUTES);
+		}
+	}
+
+	private static boolean respondsOk(int port) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + FIRST_REQUEST)
+					.openConnection();
+			try {
+				return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+			} finally {
+				connection.disconnect();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * The test class path as the packaged application would have it: without
+	 * devtools, and with class directories turned into jars, which is all a
+	 * class-data-sharing archive accepts. Surefire runs tests from a
+	 * manifest-only jar and passes the real class path separately.
+	 */
+	private String applicationClassPath() throws IOException {
+		List<String> entries = new ArrayList<>();
+		for (String entry : System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"))
+				.split(File.pathSeparator)) {
+			Path path = Paths.get(entry);
+			if (Files.isDirectory(path)) {
+				entries.add(jar(path, workDir.resolve(path.getFileName() + ".jar")).toString());
+			} else if (!path.getFileName().toString().startsWith("spring-boot-devtools")) {
+				entries.add(entry);
+			}
+		}
+		return String.join(File.pathSeparator, entries);
+	}
+
+	private static Path jar(Path directory, Path jar) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+				Stream<Path> files = Files.walk(directory)) {
+			for (Path file : (Iterable<Path>) files.skip(1)::iterator) { // directory entries too, for classpath scans
+				String name = directory.relativize(file).toString().replace(File.separatorChar, '/');
+				if (Files.isDirectory(file)) {
+					out.putNextEntry(new JarEntry(name + "/"));
+				} else {
+					out.putNextEntry(new JarEntry(name));
+					Files.copy(file, out);
+				}
+				out.closeEntry();
+			}
+		}
+		return jar;
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static int javaFeatureVersion() {
+		String version = System.getProperty("java.specification.version");
+		return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+	}
+}
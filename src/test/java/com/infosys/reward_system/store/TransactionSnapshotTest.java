@@ -0,0 +1,129 @@
+package com.infosys.reward_system.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.infosys.reward_system.repository.projection.TransactionsVersion;
+
+class TransactionSnapshotTest {
+	private TransactionSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() {
+		TransactionBatch batch = new TransactionBatch();
+		batch.add(1, 2, "Jane", LocalDate.of(2024, 1, 31), 12000);
+		batch.add(2, 1, "John", LocalDate.of(2024, 2, 1), 7500);
+		batch.add(3, 2, "Jane", LocalDate.of(2024, 1, 5), 5000);
+		batch.add(4, 1, "Johnny", LocalDate.of(2024, 1, 20), 20000);
+		batch.add(5, 2, "Jane", LocalDate.of(2024, 3, 15), 9900);
+		snapshot = TransactionSnapshot.EMPTY.with(batch);
+	}
+
+	@Test
+	void testForEachCustomer_VisitsCustomersInIdOrderAndRowsMonthByMonth() {
+		List<String> visited = new ArrayList<>();
+		snapshot.forEachCustomer(null, null, Integer.MIN_VALUE, (customerId, customerName, rows) -> {
+			rows.forEach((transactionId, month, epochDay, amountCents) -> visited.add(customerName + " "
+					+ transactionId + " " + LocalDate.ofEpochDay(epochDay) + " " + amountCents));
+			return true;
+		});
+
+		assertEquals(Arrays.asList("John 4 2024-01-20 20000", "John 2 2024-02-01 7500", "Jane 1 2024-01-31 12000",
+				"Jane 3 2024-01-05 5000", "Jane 5 2024-03-15 9900"), visited);
+	}
+
+	@Test
+	void testForEachCustomer_FiltersPartialMonthsAndSkipsCustomersOutsideTheRange() {
+		List<Integer> visited = new ArrayList<>();
+		snapshot.forEachCustomer(LocalDate.of(2024, 1, 21), LocalDate.of(2024, 3, 14), Integer.MIN_VALUE,
+				(customerId, customerName, rows) -> {
+					rows.forEach((transactionId, month, epochDay, amountCents) -> visited.add(transactionId));
+					return true;
+				});
+		assertEquals(Arrays.asList(2, 1), visited);
+
+		List<Integer> customers = new ArrayList<>();
+		snapshot.forEachCustomer(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), Integer.MIN_VALUE,
+				(customerId, customerName, rows) -> customers.add(customerId));
+		assertEquals(Arrays.asList(2), customers);
+	}
+
+	@Test
+	void testForEachCustomer_StartsAfterTheCursorAndStopsWhenAsked() {
+		List<Integer> customers = new ArrayList<>();
+		snapshot.forEachCustomer(null, null, 1, (customerId, customerName, rows) -> customers.add(customerId));
+		assertEquals(Arrays.asList(2), customers);
+
+		customers.clear();
+		snapshot.forEachCustomer(null, null, 0, (customerId, customerName, rows) -> !customers.add(customerId));
+		assertEquals(Arrays.asList(1), customers);
+	}
+
+	@Test
+	void testWith_MergesNewTransactionsIntoACopy() {
+		TransactionBatch batch = new TransactionBatch();
+		batch.add(6, 1, "John", LocalDate.of(2024, 1, 2), 15000);
+		batch.add(7, 3, "Ann", LocalDate.of(2024, 4, 1), 6000);
+		TransactionSnapshot merged = snapshot.with(batch);
+
+		List<Integer> johnRows = new ArrayList<>();
+		assertEquals(3, merged.scanCustomer(1, null, null,
+				(transactionId, month, epochDay, amountCents) -> johnRows.add(transactionId)));
+		assertEquals(Arrays.asList(4, 6, 2), johnRows);
+		assertEquals("Ann", merged.getCustomerName(3));
+		assertEquals(new TransactionsVersion(7, 7), merged.version(null, null));
+
+		assertEquals(2, snapshot.scanCustomer(1, null, null, (transactionId, month, epochDay, amountCents) -> {
+		}));
+		assertNull(snapshot.getCustomerName(3));
+		assertSame(merged, merged.with(new TransactionBatch()));
+		assertThrows(IllegalArgumentException.class, () -> merged.with(batch));
+	}
+
+	@Test
+	void testWith_MergesNewCustomersInIdOrder() {
+		TransactionBatch batch = new TransactionBatch();
+		batch.add(6, 3, "Ann", LocalDate.of(2024, 1, 2), 15000);
+		batch.add(7, 2, "Janet", LocalDate.of(2024, 1, 3), 6000);
+		batch.add(8, 0, "Zoe", LocalDate.of(2024, 1, 4), 6000);
+		TransactionSnapshot merged = snapshot.with(batch);
+
+		List<String> customers = new ArrayList<>();
+		merged.forEachCustomer(null, null, Integer.MIN_VALUE,
+				(customerId, customerName, rows) -> customers.add(customerId + " " + customerName));
+		assertEquals(Arrays.asList("0 Zoe", "1 John", "2 Jane", "3 Ann"), customers);
+		assertEquals(4, merged.getCustomerCount());
+	}
+
+	@Test
+	void testVersion_CountsWholeAndPartialMonths() {
+		assertEquals(new TransactionsVersion(5, 5), snapshot.version(null, null));
+		assertEquals(new TransactionsVersion(3, 4), snapshot.version(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 1, 31)));
+		assertEquals(new TransactionsVersion(2, 2), snapshot.version(LocalDate.of(2024, 1, 21),
+				LocalDate.of(2024, 2, 29)));
+		assertEquals(new TransactionsVersion(0, null), snapshot.version(LocalDate.of(2025, 1, 1),
+				LocalDate.of(2025, 12, 31)));
+		assertEquals(new TransactionsVersion(2, 5), snapshot.version(2, LocalDate.of(2024, 1, 10),
+				LocalDate.of(2024, 12, 31)));
+		assertEquals(new TransactionsVersion(0, null), snapshot.version(3, null, null));
+	}
+
+	@Test
+	void testTransactionBatch_RejectsIdsOutOfOrder() {
+		TransactionBatch batch = new TransactionBatch();
+		batch.add(5, 1, "John", LocalDate.of(2024, 1, 1), 100);
+
+		assertThrows(IllegalArgumentException.class, () -> batch.add(5, 1, "John", LocalDate.of(2024, 1, 1), 100));
+	}
+}